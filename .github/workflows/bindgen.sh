@@ -6,5 +6,5 @@ if [ -z "$packageVersion" ]; then
   packageVersion=0.0.0
 fi
 
-java -cp ${repo}/go-oapi-codegen.jar:${repo}/openapi-generator-cli.jar org.openapitools.codegen.OpenAPIGenerator generate -i ${repo}/openapi.json.tmp -g go-oapi-codegen -o ${repo}/onshape --type-mappings DateTime=JSONTime --additional-properties=packageVersion=${packageVersion} --additional-properties=useOneOfDiscriminatorLookup=true --global-property apiTests=false -c ${repo}/openapi_config.json
+java -cp ${repo}/go-oapi-codegen.jar:${repo}/openapi-generator-cli.jar org.openapitools.codegen.OpenAPIGenerator generate -i ${repo}/openapi.json -g go-oapi-codegen -o ${repo}/onshape --type-mappings DateTime=JSONTime --additional-properties=packageVersion=${packageVersion} --additional-properties=useOneOfDiscriminatorLookup=true --additional-properties=preprocessConfig=${repo}/bindgen-config.json --additional-properties=incrementalCache=${repo}/onshape/.openapi-generator/bindgen-cache.json --minimal-update --global-property apiTests=false -c ${repo}/openapi_config.json
 go fmt ${repo}/onshape
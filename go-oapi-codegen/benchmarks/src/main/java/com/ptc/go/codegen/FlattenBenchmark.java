@@ -0,0 +1,87 @@
+package com.ptc.go.codegen;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InlineModelFlattener#flatten(OpenAPI)} over a freshly built spec, since
+ * flattening rewrites the spec in place. flattenAliases flattens a spec of allOf
+ * chains that are not models, which mostly measures isModelNeeded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlattenBenchmark {
+    @Param({"100", "1000"})
+    public int paths;
+
+    @Param({"3"})
+    public int depth;
+
+    @Param({"8"})
+    public int oneOfFanOut;
+
+    @Param({"16"})
+    public int enumSize;
+
+    @Param({"8", "64"})
+    public int allOfDepth;
+
+    @Param({"false", "true"})
+    public boolean parallelPathFlattening;
+
+    private OpenAPI openAPI;
+    private OpenAPI aliases;
+
+    @Setup(Level.Invocation)
+    public void buildSpec() {
+        openAPI = SyntheticSpec.builder()
+                .paths(paths)
+                .depth(depth)
+                .oneOfFanOut(oneOfFanOut)
+                .enumSize(enumSize)
+                .allOfDepth(allOfDepth)
+                .build();
+        aliases = SyntheticSpec.builder()
+                .paths(paths)
+                .depth(depth)
+                .allOfDepth(allOfDepth)
+                .buildAliases();
+    }
+
+    private InlineModelFlattener flattener() {
+        InlineModelFlattener flattener = new InlineModelFlattener();
+        flattener.setInlineSchemaOptions(Collections.singletonMap("PARALLEL_PATH_FLATTENING",
+                String.valueOf(parallelPathFlattening)));
+        return flattener;
+    }
+
+    @Benchmark
+    public OpenAPI flatten() {
+        flattener().flatten(openAPI);
+        return openAPI;
+    }
+
+    @Benchmark
+    public OpenAPI flattenAliases() {
+        flattener().flatten(aliases);
+        return aliases;
+    }
+}
@@ -0,0 +1,82 @@
+package com.ptc.go.codegen;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.DefaultGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end generation of a Go client, templates and file writes included, the
+ * way the bindgen workflow runs it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GenerationBenchmark {
+    @Param({"50", "200"})
+    public int paths;
+
+    @Param({"3"})
+    public int depth;
+
+    @Param({"8"})
+    public int oneOfFanOut;
+
+    @Param({"16"})
+    public int enumSize;
+
+    private OpenAPI openAPI;
+    private Path outputDir;
+
+    @Setup(Level.Invocation)
+    public void buildSpec() throws IOException {
+        openAPI = SyntheticSpec.builder()
+                .paths(paths)
+                .depth(depth)
+                .oneOfFanOut(oneOfFanOut)
+                .enumSize(enumSize)
+                .build();
+        outputDir = Files.createTempDirectory("go-oapi-codegen-benchmark");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteOutput() throws IOException {
+        try (Stream<Path> files = Files.walk(outputDir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public List<File> generate() {
+        GoOapiCodegenGenerator generator = new GoOapiCodegenGenerator();
+        generator.setOutputDir(outputDir.toString());
+
+        DefaultGenerator defaultGenerator = new DefaultGenerator();
+        defaultGenerator.setGenerateMetadata(false);
+        return defaultGenerator.opts(new ClientOptInput().openAPI(openAPI).config(generator)).generate();
+    }
+}
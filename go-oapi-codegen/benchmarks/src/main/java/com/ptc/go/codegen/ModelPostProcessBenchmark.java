@@ -0,0 +1,104 @@
+package com.ptc.go.codegen;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import org.openapitools.codegen.model.ModelMap;
+import org.openapitools.codegen.model.ModelsMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GoOapiCodegenGenerator#postProcessModels(ModelsMap)} and the steps it
+ * adds to the Go client generator. The post-processing steps rename properties
+ * and enum values in place, so the models are rebuilt before every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelPostProcessBenchmark {
+    @Param({"100"})
+    public int paths;
+
+    @Param({"8", "64"})
+    public int oneOfFanOut;
+
+    @Param({"16", "256"})
+    public int enumSize;
+
+    private GoOapiCodegenGenerator generator;
+    private Map<String, Schema> schemas;
+    private List<ModelsMap> models;
+
+    @Setup(Level.Trial)
+    public void buildGenerator() {
+        OpenAPI openAPI = SyntheticSpec.builder()
+                .paths(paths)
+                .oneOfFanOut(oneOfFanOut)
+                .enumSize(enumSize)
+                .build();
+        generator = new GoOapiCodegenGenerator();
+        generator.processOpts();
+        generator.preprocessOpenAPI(openAPI);
+        generator.processOpenAPI(openAPI);
+        generator.setOpenAPI(openAPI);
+        schemas = openAPI.getComponents().getSchemas();
+    }
+
+    @Setup(Level.Invocation)
+    public void buildModels() {
+        models = new ArrayList<>(schemas.size());
+        for (Map.Entry<String, Schema> entry : schemas.entrySet()) {
+            ModelMap modelMap = new ModelMap();
+            modelMap.setModel(generator.fromModel(entry.getKey(), entry.getValue()));
+
+            List<ModelMap> modelMaps = new ArrayList<>();
+            modelMaps.add(modelMap);
+            ModelsMap modelsMap = new ModelsMap();
+            modelsMap.setModels(modelMaps);
+            modelsMap.setImports(new ArrayList<>());
+            models.add(modelsMap);
+        }
+    }
+
+    @Benchmark
+    public List<ModelsMap> postProcessModels() {
+        for (int i = 0; i < models.size(); i++) {
+            models.set(i, generator.postProcessModels(models.get(i)));
+        }
+        return models;
+    }
+
+    @Benchmark
+    public List<ModelsMap> resolveParameterNamingConflicts() {
+        for (ModelsMap modelsMap : models) {
+            generator.resolveParameterNamingConflicts(modelsMap);
+        }
+        return models;
+    }
+
+    @Benchmark
+    public List<ModelsMap> prefixConstNamesWithType() {
+        for (ModelsMap modelsMap : models) {
+            generator.prefixConstNamesWithType(modelsMap);
+        }
+        return models;
+    }
+}
@@ -0,0 +1,121 @@
+package com.ptc.go.codegen;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Names} on the names a flatten run and enum post-processing see: path
+ * and operation based inline schema names, schema titles, and enum values that
+ * repeat across models. The legacy benchmarks keep the regex and string
+ * concatenation versions around for comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NamingBenchmark {
+    @Param({"1000"})
+    public int paths;
+
+    @Param({"64"})
+    public int enumSize;
+
+    private List<String> modelNames;
+    private List<String> enumValues;
+
+    @Setup(Level.Trial)
+    public void collectNames() {
+        OpenAPI openAPI = SyntheticSpec.builder().paths(paths).enumSize(enumSize).build();
+
+        modelNames = new ArrayList<>();
+        openAPI.getPaths().forEach((path, item) -> {
+            modelNames.add(path);
+            modelNames.add(item.getPost().getOperationId() + "_request");
+            modelNames.add(item.getPost().getOperationId() + "_200_response.feature");
+        });
+
+        enumValues = new ArrayList<>();
+        for (Map.Entry<String, Schema> entry : openAPI.getComponents().getSchemas().entrySet()) {
+            modelNames.add(entry.getKey());
+            if (entry.getValue().getEnum() != null) {
+                for (Object value : entry.getValue().getEnum()) {
+                    enumValues.add(String.valueOf(value));
+                }
+            }
+        }
+        // every enum value is post-processed once per model using it and again
+        // for its default value
+        int distinct = enumValues.size();
+        for (int i = 0; i < paths; i++) {
+            enumValues.add(enumValues.get(i % distinct));
+        }
+    }
+
+    @Benchmark
+    public void sanitize(Blackhole blackhole) {
+        for (String name : modelNames) {
+            blackhole.consume(Names.sanitize(name));
+        }
+    }
+
+    @Benchmark
+    public void sanitizeUncached(Blackhole blackhole) {
+        for (String name : modelNames) {
+            blackhole.consume(Names.computeSanitized(name));
+        }
+    }
+
+    @Benchmark
+    public void sanitizeLegacy(Blackhole blackhole) {
+        for (String name : modelNames) {
+            blackhole.consume(name.replaceAll("^[0-9]", "_$0").replaceAll("[^A-Za-z0-9]", "_"));
+        }
+    }
+
+    @Benchmark
+    public void enumName(Blackhole blackhole) {
+        for (String value : enumValues) {
+            blackhole.consume(Names.enumName(value));
+        }
+    }
+
+    @Benchmark
+    public void enumNameUncached(Blackhole blackhole) {
+        for (String value : enumValues) {
+            blackhole.consume(Names.computeEnumName(value));
+        }
+    }
+
+    @Benchmark
+    public void enumNameLegacy(Blackhole blackhole) {
+        for (String value : enumValues) {
+            String name = StringUtils.lowerCase(StringUtils.replace(value, "_", " "));
+            String result = "";
+            for (String part : name.split(" ")) {
+                result += StringUtils.capitalize(part);
+            }
+            blackhole.consume(result);
+        }
+    }
+}
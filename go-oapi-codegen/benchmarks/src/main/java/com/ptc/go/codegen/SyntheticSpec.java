@@ -0,0 +1,272 @@
+package com.ptc.go.codegen;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.Discriminator;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds OpenAPI documents shaped like the Onshape API: a discriminated BT*
+ * type hierarchy, enums, chains of allOf schemas, and operations with nested
+ * inline request and response bodies, including oneOf within oneOf.
+ * <p>
+ * Every call to {@link #build()} returns a new document, since flattening and
+ * generation modify the one they are given.
+ */
+class SyntheticSpec {
+    private int paths = 100;
+    private int depth = 3;
+    private int oneOfFanOut = 8;
+    private int enumSize = 16;
+    private int allOfDepth = 8;
+
+    static SyntheticSpec builder() {
+        return new SyntheticSpec();
+    }
+
+    /**
+     * @param paths number of paths, each with a POST operation
+     */
+    SyntheticSpec paths(int paths) {
+        this.paths = paths;
+        return this;
+    }
+
+    /**
+     * @param depth nesting depth of inline objects in request bodies
+     */
+    SyntheticSpec depth(int depth) {
+        this.depth = depth;
+        return this;
+    }
+
+    /**
+     * @param oneOfFanOut number of subtypes of each discriminated base type
+     */
+    SyntheticSpec oneOfFanOut(int oneOfFanOut) {
+        this.oneOfFanOut = oneOfFanOut;
+        return this;
+    }
+
+    /**
+     * @param enumSize number of values of each enum
+     */
+    SyntheticSpec enumSize(int enumSize) {
+        this.enumSize = enumSize;
+        return this;
+    }
+
+    /**
+     * @param allOfDepth number of schemas in each allOf chain, each extending
+     *                   the previous one; at least 1
+     */
+    SyntheticSpec allOfDepth(int allOfDepth) {
+        this.allOfDepth = allOfDepth;
+        return this;
+    }
+
+    OpenAPI build() {
+        Components components = new Components();
+        int hierarchies = Math.max(1, paths / 50);
+        for (int h = 0; h < hierarchies; h++) {
+            addHierarchy(components, h);
+            addAllOfChains(components, h);
+        }
+
+        Paths specPaths = new Paths();
+        for (int i = 0; i < paths; i++) {
+            String hierarchy = "BTMFeature" + (i % hierarchies);
+            Operation operation = new Operation()
+                    .operationId("updateFeature" + i)
+                    .tags(Collections.singletonList("PartStudio" + (i % 10)))
+                    .parameters(new ArrayList<>(Arrays.asList(
+                            pathParameter("did"), pathParameter("wid"), pathParameter("eid"),
+                            new Parameter().name("featureId").in("query")
+                                    .schema(new ArraySchema().items(new Schema().type("string"))),
+                            new Parameter().name("rollbackBarIndex").in("query")
+                                    .schema(new Schema().type("integer").format("int32")))))
+                    .requestBody(new RequestBody().content(json(requestBody(i, hierarchy, depth))))
+                    .responses(new ApiResponses().addApiResponse("200", new ApiResponse().description("ok")
+                            .content(json(responseBody(i, hierarchy)))));
+            specPaths.addPathItem("/api/v10/partstudios/d/{did}/w/{wid}/e/{eid}/features/op" + i,
+                    new PathItem().post(operation));
+        }
+
+        return new OpenAPI()
+                .info(new Info().title("Synthetic Onshape API").version("1.0.0"))
+                .paths(specPaths)
+                .components(components);
+    }
+
+    /**
+     * Builds a document whose request bodies only hold inline allOf schemas over
+     * chains of aliases of strings, none of which is a model. Flattening it is
+     * dominated by isModelNeeded walking down the chains.
+     */
+    OpenAPI buildAliases() {
+        Components components = new Components();
+        int chains = Math.max(1, paths / 50);
+        for (int c = 0; c < chains; c++) {
+            addAliasChain(components, c);
+        }
+
+        Paths specPaths = new Paths();
+        for (int i = 0; i < paths; i++) {
+            Schema body = new Schema().type("object");
+            for (int p = 0; p < depth; p++) {
+                body.addProperty("id" + p, new Schema().allOf(Collections.singletonList(
+                        ref(alias((i + p) % chains, allOfDepth - 1)))));
+            }
+            Operation operation = new Operation()
+                    .operationId("updateIds" + i)
+                    .requestBody(new RequestBody().content(json(new Schema().allOf(Arrays.asList(
+                            ref(alias(i % chains, allOfDepth - 1)), body)))))
+                    .responses(new ApiResponses().addApiResponse("200", new ApiResponse().description("ok")
+                            .content(json(body))));
+            specPaths.addPathItem("/api/v10/ids/op" + i, new PathItem().post(operation));
+        }
+
+        return new OpenAPI()
+                .info(new Info().title("Synthetic Onshape API").version("1.0.0"))
+                .paths(specPaths)
+                .components(components);
+    }
+
+    private void addHierarchy(Components components, int h) {
+        String base = "BTMFeature" + h;
+        String enumName = "BTFeatureState" + h;
+
+        List<String> values = new ArrayList<>();
+        for (int v = 0; v < enumSize; v++) {
+            values.add((v % 2 == 0 ? "FEATURE_STATE_" : "feature-state.") + v);
+        }
+        components.addSchemas(enumName, new Schema<String>().type("string")._enum(values));
+
+        Discriminator discriminator = new Discriminator().propertyName("btType");
+        Schema baseSchema = new Schema().type("object")
+                .addProperty("btType", new Schema().type("string"))
+                .addProperty("name", new Schema().type("string"))
+                // accessor conflicts resolved by GoOapiCodegenGenerator.resolveParameterNamingConflicts
+                .addProperty("getName", new Schema().type("string"))
+                .addProperty("value", new Schema().type("number"))
+                .addProperty("hasValue", new Schema().type("boolean"))
+                .addProperty("state", ref(enumName))
+                .discriminator(discriminator);
+        components.addSchemas(base, baseSchema);
+
+        for (int s = 0; s < oneOfFanOut; s++) {
+            String subtype = base + "Type" + s;
+            discriminator.mapping(subtype + "-" + s, "#/components/schemas/" + subtype);
+            components.addSchemas(subtype, new Schema().allOf(Arrays.asList(ref(base), new Schema().type("object")
+                    .addProperty("parameterId" + s, new Schema().type("string"))
+                    .addProperty("setParameterId" + s, new Schema().type("string"))
+                    .addProperty("children", new ArraySchema().items(ref(base)))
+                    .addProperty("attributes", new Schema().type("object")
+                            .additionalProperties(new Schema().type("string"))))));
+        }
+    }
+
+    /**
+     * Adds an allOf chain of aliases of string, and an allOf chain of objects
+     * starting from the base type of the hierarchy, each with an inline object
+     * that refers to the alias chain
+     */
+    private void addAllOfChains(Components components, int h) {
+        addAliasChain(components, h);
+        String previous = "BTMFeature" + h;
+        for (int k = 0; k < allOfDepth; k++) {
+            String extended = extended(h, k);
+            components.addSchemas(extended, new Schema().allOf(Arrays.asList(ref(previous), new Schema().type("object")
+                    .addProperty("extension" + k, new Schema().type("string"))
+                    .addProperty("extensionId", new Schema().allOf(Collections.singletonList(
+                            ref(alias(h, k))))))));
+            previous = extended;
+        }
+    }
+
+    private void addAliasChain(Components components, int c) {
+        components.addSchemas(alias(c, 0), new Schema().type("string").format("uuid"));
+        for (int k = 1; k < allOfDepth; k++) {
+            components.addSchemas(alias(c, k), new Schema().allOf(Collections.singletonList(ref(alias(c, k - 1))))
+                    .description("Identifier " + k));
+        }
+    }
+
+    private static String alias(int c, int k) {
+        return "BTId" + c + "_" + k;
+    }
+
+    private static String extended(int h, int k) {
+        return "BTMFeature" + h + "Extended" + k;
+    }
+
+    private Schema requestBody(int i, String hierarchy, int levels) {
+        Schema body = new Schema().type("object")
+                .addProperty("feature", ref(hierarchy))
+                .addProperty("sourceMicroversion", new Schema().type("string"))
+                .addProperty("rejectMicroversionSkew", new Schema().type("boolean"))
+                .addProperty("extendedFeature", ref(hierarchy + "Extended" + (allOfDepth - 1)))
+                .addProperty("override", new Schema().allOf(Arrays.asList(
+                        ref(hierarchy + "Extended" + (i % allOfDepth)),
+                        new Schema().type("object").addProperty("overrideOf" + (i % 3), new Schema().type("string")))))
+                .addProperty("mode", new Schema<String>().type("string")
+                        ._enum(Arrays.asList("FAST", "FULL_REBUILD", "mode-" + (i % 7))));
+        if (levels > 0) {
+            body.addProperty("options", requestBody(i, hierarchy, levels - 1))
+                    .addProperty("entries", new ArraySchema().items(new Schema().type("object")
+                            .addProperty("entryId", new Schema().type("string"))
+                            .addProperty("index" + (i % 5), new Schema().type("integer"))));
+        }
+        return body;
+    }
+
+    private Schema responseBody(int i, String hierarchy) {
+        List<Schema> variants = new ArrayList<>();
+        for (int s = 0; s < oneOfFanOut; s++) {
+            variants.add(ref(hierarchy + "Type" + s));
+        }
+        variants.add(new Schema().type("object").addProperty("message" + (i % 3), new Schema().type("string")));
+        // an inline oneOf whose variants hold inline oneOf properties and items
+        Schema nested = new Schema().oneOf(Arrays.asList(
+                new Schema().type("object").addProperty("value", new Schema().oneOf(Arrays.asList(
+                        new Schema().type("string"),
+                        new Schema().type("object")
+                                .addProperty("feature", new Schema().oneOf(new ArrayList<>(variants)))))),
+                new ArraySchema().items(new Schema().oneOf(Arrays.asList(
+                        ref(hierarchy + "Type0"),
+                        new Schema().type("object").addProperty("index" + (i % 5), new Schema().type("integer")))))));
+        return new Schema().type("object")
+                .addProperty("feature", new Schema().oneOf(variants))
+                .addProperty("result", nested)
+                .addProperty("microversionSkew", new Schema().type("boolean"))
+                .addProperty("libraryVersion", new Schema().type("integer").format("int32"));
+    }
+
+    private static Parameter pathParameter(String name) {
+        return new Parameter().name(name).in("path").required(true).schema(new Schema().type("string"));
+    }
+
+    private static Content json(Schema schema) {
+        return new Content().addMediaType("application/json", new MediaType().schema(schema));
+    }
+
+    private static Schema ref(String name) {
+        return new Schema().$ref("#/components/schemas/" + name);
+    }
+}
@@ -0,0 +1,79 @@
+package com.ptc.go.codegen;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GoOapiCodegenGenerator#getTypeDeclaration(Schema)} for every property
+ * of the flattened spec.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypeDeclarationBenchmark {
+    @Param({"100", "1000"})
+    public int paths;
+
+    @Param({"3"})
+    public int depth;
+
+    private GoOapiCodegenGenerator generator;
+    private List<Schema> properties;
+
+    @Setup(Level.Trial)
+    public void buildGenerator() {
+        OpenAPI openAPI = SyntheticSpec.builder().paths(paths).depth(depth).build();
+        generator = new GoOapiCodegenGenerator();
+        generator.processOpts();
+        generator.preprocessOpenAPI(openAPI);
+        generator.processOpenAPI(openAPI);
+        generator.setOpenAPI(openAPI);
+
+        properties = new ArrayList<>();
+        for (Schema schema : openAPI.getComponents().getSchemas().values()) {
+            properties.add(schema);
+            collectProperties(schema);
+        }
+    }
+
+    private void collectProperties(Schema schema) {
+        if (schema.getAllOf() != null) {
+            for (Object child : schema.getAllOf()) {
+                collectProperties((Schema) child);
+            }
+        }
+        if (schema.getProperties() != null) {
+            for (Object property : ((Map<String, Schema>) schema.getProperties()).values()) {
+                properties.add((Schema) property);
+            }
+        }
+    }
+
+    @Benchmark
+    public void getTypeDeclaration(Blackhole blackhole) {
+        for (Schema property : properties) {
+            blackhole.consume(generator.getTypeDeclaration(property));
+        }
+    }
+}
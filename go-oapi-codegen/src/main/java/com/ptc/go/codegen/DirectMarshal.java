@@ -0,0 +1,124 @@
+package com.ptc.go.codegen;
+
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.CodegenProperty;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Plans the generated MarshalJSON of a model that writes its properties one by
+ * one instead of collecting them in a map[string]interface{}.
+ * <p>
+ * The output stays byte for byte that of json.Marshal of the map: properties
+ * are written in the sorted order of their names, and a property the model
+ * leaves unset is taken from its embedded parent, then from the parent's
+ * parent, as when the marshalled parent was unmarshalled into the map first.
+ * Models with additional properties or array items, or with such a parent, keep
+ * the map.
+ */
+final class DirectMarshal {
+    static final String EXTENSION = "x-go-direct-marshal";
+    static final String FIELDS_EXTENSION = "x-go-marshal-fields";
+
+    private static final Comparator<String> UTF8_ORDER = (a, b) -> {
+        byte[] x = a.getBytes(StandardCharsets.UTF_8);
+        byte[] y = b.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < Math.min(x.length, y.length); i++) {
+            if (x[i] != y[i]) {
+                return (x[i] & 0xff) - (y[i] & 0xff);
+            }
+        }
+        return x.length - y.length;
+    };
+
+    private DirectMarshal() {
+    }
+
+    /**
+     * Adds the {@link #EXTENSION} and {@link #FIELDS_EXTENSION} vendor extensions
+     * to a model that can be marshalled directly
+     *
+     * @param model  model rendered by model_simple.mustache, or the base of a oneOf
+     * @param models all models by class name
+     * @return whether the model can be marshalled directly
+     */
+    static boolean apply(CodegenModel model, Map<String, CodegenModel> models) {
+        // the model and its parents, from the model up
+        List<CodegenModel> chain = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+        String prefix = "o.";
+        for (CodegenModel level = model; level != null; ) {
+            if (level.isArray || level.isAdditionalPropertiesTrue || level.isEnum || !level.anyOf.isEmpty()
+                    || (level != model && !level.oneOf.isEmpty())) {
+                return false;
+            }
+            chain.add(level);
+            prefixes.add(prefix);
+
+            if (level.parent == null || level.isMap) {
+                break;
+            }
+            CodegenModel parent = models.get(level.parent);
+            if (parent == null || chain.contains(parent)) {
+                return false;
+            }
+            prefix = prefix + level.parent + ".";
+            level = parent;
+        }
+
+        Map<String, List<Map<String, Object>>> sources = new TreeMap<>(UTF8_ORDER);
+        for (int i = 0; i < chain.size(); i++) {
+            for (CodegenProperty property : chain.get(i).allVars) {
+                List<Map<String, Object>> propertySources = sources.computeIfAbsent(property.baseName,
+                        k -> new ArrayList<>());
+                // an unconditional source hides the ones after it
+                if (propertySources.isEmpty()
+                        || (boolean) propertySources.get(propertySources.size() - 1).get("conditional")) {
+                    propertySources.add(source(property, prefixes.get(i)));
+                }
+            }
+        }
+
+        List<Map<String, Object>> fields = new ArrayList<>();
+        for (Map.Entry<String, List<Map<String, Object>>> entry : sources.entrySet()) {
+            Map<String, Object> field = new LinkedHashMap<>();
+            field.put("key", Names.goString(Names.jsonString(entry.getKey()) + ":"));
+            field.put("sources", entry.getValue());
+            field.put("fallback", entry.getValue().size() > 1);
+            fields.add(field);
+        }
+
+        model.vendorExtensions.put(EXTENSION, true);
+        model.vendorExtensions.put(FIELDS_EXTENSION, fields);
+        return true;
+    }
+
+    /**
+     * @return whether the property is written on a condition, the condition and
+     *         the value to write
+     */
+    private static Map<String, Object> source(CodegenProperty property, String prefix) {
+        String field = prefix + property.name;
+        boolean container = Boolean.TRUE.equals(property.vendorExtensions.get("x-golang-is-container"));
+
+        String condition = null;
+        String value = field;
+        if (property.isNullable && container) {
+            condition = field + " != nil";
+        } else if (property.isNullable) {
+            if (!property.required) {
+                condition = field + ".IsSet()";
+            }
+            value = field + ".Get()";
+        } else if (!property.required) {
+            condition = field + " != nil";
+        }
+
+        Map<String, Object> source = new LinkedHashMap<>();
+        source.put("conditional", condition != null);
+        source.put("condition", condition);
+        source.put("value", value);
+        return source;
+    }
+}
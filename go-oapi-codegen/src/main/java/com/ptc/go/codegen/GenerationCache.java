@@ -0,0 +1,423 @@
+package com.ptc.go.codegen;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import io.swagger.v3.oas.models.media.Schema;
+import org.openapitools.codegen.utils.ModelUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content hashes of a flattened spec, stored between runs so that generation
+ * can skip the models and APIs whose inputs have not changed.
+ * <p>
+ * A model hash covers the schema and every schema it reaches through a $ref or
+ * a discriminator mapping, since any of them can change the generated model. A
+ * parent with a discriminator also maps the models that extend it, so its hash
+ * covers their names and discriminator values, but not their contents. An API
+ * (one per tag) hash covers its operations and everything they reference.
+ * <p>
+ * The global hash covers the generator and the rest of the spec, except for
+ * the version in info; when it differs nothing can be reused. The layout hash
+ * covers the lists of models and operations that supporting files iterate. The
+ * spec version, the package version and the operation summaries only show up
+ * in a few supporting files, which get a hash of their own, see
+ * {@link #filesToRender}.
+ */
+class GenerationCache {
+    static final int FORMAT_VERSION = 2;
+
+    private static final String SCHEMA_REF_PREFIX = "#/components/schemas/";
+    private static final String COMPONENT_REF_PREFIX = "#/components/";
+    private static final String DEFAULT_TAG = "default";
+
+    // writes the models as the swagger mapper does, with sorted bean properties.
+    // The swagger mapper is a plain ObjectMapper registering serializers and
+    // mix-ins JsonMapper.builder() cannot carry over, so its copy is configured
+    // through its SerializationConfig instead.
+    private static final ObjectMapper canonicalMapper;
+    private static final ObjectMapper fileMapper = JsonMapper.builder().build();
+
+    static {
+        canonicalMapper = Json.mapper().copy();
+        canonicalMapper.setConfig(
+                canonicalMapper.getSerializationConfig().with(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY));
+    }
+
+    private String global;
+    private String layout;
+    private Map<String, String> models = new TreeMap<>();
+    private Map<String, String> apis = new TreeMap<>();
+    private Map<String, String> files = new TreeMap<>();
+
+    private GenerationCache() {
+    }
+
+    /**
+     * Hash a flattened spec
+     *
+     * @param openAPI              flattened spec
+     * @param generatorFingerprint everything outside the spec that affects the
+     *                             output, except for the package version
+     * @param packageVersion       package version, may be null
+     * @param tagSanitizer         maps tag names to the API names used by the generator
+     */
+    static GenerationCache of(OpenAPI openAPI, String generatorFingerprint, String packageVersion,
+            Function<String, String> tagSanitizer) {
+        GenerationCache cache = new GenerationCache();
+        Map<String, Schema> schemas = ModelUtils.getSchemas(openAPI);
+
+        Map<String, String> ownHashes = new HashMap<>();
+        Map<String, Set<String>> edges = new HashMap<>();
+        for (Map.Entry<String, Schema> entry : schemas.entrySet()) {
+            JsonNode node = canonicalMapper.valueToTree(entry.getValue());
+            ownHashes.put(entry.getKey(), digest(node.toString()));
+            edges.computeIfAbsent(entry.getKey(), k -> new TreeSet<>()).addAll(schemaRefs(node, schemas));
+        }
+        // a parent with a discriminator maps the models that extend it by name
+        Map<String, Set<String>> implicitMappings = new HashMap<>();
+        for (Map.Entry<String, Schema> entry : schemas.entrySet()) {
+            List<Schema> allOf = entry.getValue().getAllOf();
+            if (allOf == null) {
+                continue;
+            }
+            for (Schema parent : allOf) {
+                if (parent != null && parent.get$ref() != null && parent.get$ref().startsWith(SCHEMA_REF_PREFIX)) {
+                    String name = parent.get$ref().substring(SCHEMA_REF_PREFIX.length());
+                    Schema parentSchema = schemas.get(name);
+                    if (parentSchema != null && parentSchema.getDiscriminator() != null) {
+                        Map<String, Object> extensions = entry.getValue().getExtensions();
+                        implicitMappings.computeIfAbsent(name, k -> new TreeSet<>()).add(entry.getKey() + '='
+                                + (extensions == null ? null : extensions.get("x-discriminator-value")));
+                    }
+                }
+            }
+        }
+
+        for (String name : schemas.keySet()) {
+            Set<String> related = closure(Collections.singleton(name), edges);
+            StringBuilder sb = new StringBuilder(ownHashes.get(name));
+            for (String other : related) {
+                sb.append('\n').append(other).append('=').append(ownHashes.get(other))
+                        .append(implicitMappings.getOrDefault(other, Collections.emptySet()));
+            }
+            cache.models.put(name, digest(sb.toString()));
+        }
+
+        ObjectNode rest = canonicalMapper.valueToTree(openAPI);
+        rest.remove("paths");
+        if (rest.get("components") instanceof ObjectNode) {
+            ((ObjectNode) rest.get("components")).remove("schemas");
+        }
+        String appVersion = null;
+        if (rest.get("info") instanceof ObjectNode) {
+            JsonNode version = ((ObjectNode) rest.get("info")).remove("version");
+            appVersion = version == null ? null : version.asText();
+        }
+
+        Map<String, StringBuilder> apiInputs = new TreeMap<>();
+        Map<String, Set<String>> apiRefs = new HashMap<>();
+        List<String> operationList = new ArrayList<>();
+        List<String> summaries = new ArrayList<>();
+        if (openAPI.getPaths() != null) {
+            for (Map.Entry<String, PathItem> pathEntry : openAPI.getPaths().entrySet()) {
+                PathItem pathItem = pathEntry.getValue();
+                JsonNode pathParameters = canonicalMapper.valueToTree(pathItem.getParameters());
+                for (Map.Entry<HttpMethod, Operation> operationEntry : pathItem.readOperationsMap().entrySet()) {
+                    Operation operation = operationEntry.getValue();
+                    JsonNode operationNode = canonicalMapper.valueToTree(operation);
+                    List<String> tags = operation.getTags() == null || operation.getTags().isEmpty()
+                            ? Collections.singletonList(DEFAULT_TAG) : operation.getTags();
+                    for (String tag : tags) {
+                        String api = tagSanitizer.apply(tag);
+                        apiInputs.computeIfAbsent(api, k -> new StringBuilder())
+                                .append(pathEntry.getKey()).append(' ').append(operationEntry.getKey()).append('\n')
+                                .append(pathParameters).append('\n').append(operationNode).append('\n');
+                        Set<String> refs = apiRefs.computeIfAbsent(api, k -> new TreeSet<>());
+                        refs.addAll(componentRefs(pathParameters));
+                        refs.addAll(componentRefs(operationNode));
+                    }
+                    operationList.add(String.join(",", tags) + ' ' + operationEntry.getKey() + ' ' + pathEntry.getKey()
+                            + ' ' + operation.getOperationId() + ' ' + operation.getDeprecated());
+                    summaries.add(operation.getOperationId() + ' ' + operation.getSummary());
+                }
+            }
+        }
+        for (Map.Entry<String, StringBuilder> entry : apiInputs.entrySet()) {
+            StringBuilder sb = entry.getValue();
+            Set<String> referencedModels = new TreeSet<>();
+            for (String ref : apiRefs.get(entry.getKey())) {
+                if (ref.startsWith(SCHEMA_REF_PREFIX)) {
+                    referencedModels.add(ref.substring(SCHEMA_REF_PREFIX.length()));
+                    continue;
+                }
+                JsonNode component = resolveComponent(rest.path("components"), ref);
+                if (component != null) {
+                    sb.append(ref).append('=').append(component).append('\n');
+                    referencedModels.addAll(schemaRefs(component, schemas));
+                }
+            }
+            Set<String> related = closure(referencedModels, edges);
+            for (String name : related) {
+                sb.append(name).append('=').append(ownHashes.get(name)).append('\n');
+            }
+            cache.apis.put(entry.getKey(), digest(sb.toString()));
+        }
+
+        cache.global = digest(FORMAT_VERSION + "\n" + generatorFingerprint + "\n" + rest + "\n"
+                + new TreeSet<>(ModelUtils.getSchemasUsedOnlyInFormParam(openAPI)));
+        cache.layout = digest(new TreeSet<>(schemas.keySet()) + "\n" + String.join("\n", operationList));
+        // the templates that render the spec version (appVersion, version), the
+        // package version and the operation summaries
+        cache.files.put("README.md",
+                digest(appVersion + "\n" + packageVersion + "\n" + String.join("\n", summaries)));
+        cache.files.put("client.go", digest(String.valueOf(appVersion)));
+        cache.files.put("configuration.go", digest(String.valueOf(packageVersion)));
+        return cache;
+    }
+
+    /**
+     * Models to render again, given the hashes of the previous run: every model
+     * whose hash, which covers the models it is related to, changed
+     *
+     * @param previous hashes of the previous run
+     */
+    Set<String> modelsToRender(GenerationCache previous) {
+        Set<String> render = new TreeSet<>();
+        for (Map.Entry<String, String> entry : models.entrySet()) {
+            if (!entry.getValue().equals(previous.models.get(entry.getKey()))) {
+                render.add(entry.getKey());
+            }
+        }
+        return render;
+    }
+
+    /**
+     * APIs whose hash changed since the previous run
+     *
+     * @param previous hashes of the previous run
+     */
+    Set<String> apisToRender(GenerationCache previous) {
+        Set<String> render = new TreeSet<>();
+        for (Map.Entry<String, String> entry : apis.entrySet()) {
+            if (!entry.getValue().equals(previous.apis.get(entry.getKey()))) {
+                render.add(entry.getKey());
+            }
+        }
+        return render;
+    }
+
+    /**
+     * Return true if a model or operation was added, removed or renamed since the
+     * previous run, so that every supporting file has to be rendered
+     *
+     * @param previous hashes of the previous run
+     */
+    boolean layoutChanged(GenerationCache previous) {
+        return !layout.equals(previous.layout);
+    }
+
+    /**
+     * Supporting files, by path relative to the output folder, that depend on the
+     * spec version, the package version or the operation summaries, and whose
+     * inputs changed since the previous run
+     *
+     * @param previous hashes of the previous run
+     */
+    Set<String> filesToRender(GenerationCache previous) {
+        Set<String> render = new TreeSet<>();
+        for (Map.Entry<String, String> entry : files.entrySet()) {
+            if (!entry.getValue().equals(previous.files.get(entry.getKey()))) {
+                render.add(entry.getKey());
+            }
+        }
+        return render;
+    }
+
+    /**
+     * Return true if the output of the previous run can be partially reused
+     *
+     * @param previous hashes of the previous run, may be null
+     */
+    boolean canReuse(GenerationCache previous) {
+        return previous != null && global.equals(previous.global);
+    }
+
+    int modelCount() {
+        return models.size();
+    }
+
+    int apiCount() {
+        return apis.size();
+    }
+
+    /**
+     * Load the hashes stored by a previous run
+     *
+     * @param file cache file
+     * @return the stored hashes, or null if the file is missing, unreadable or
+     * written by a different version
+     */
+    static GenerationCache load(File file) {
+        if (!file.isFile()) {
+            return null;
+        }
+        try {
+            JsonNode root = fileMapper.readTree(file);
+            if (root.path("version").asInt() != FORMAT_VERSION || !root.path("global").isTextual()
+                    || !root.path("layout").isTextual()) {
+                return null;
+            }
+            GenerationCache cache = new GenerationCache();
+            cache.global = root.get("global").asText();
+            cache.layout = root.get("layout").asText();
+            root.path("models").fields().forEachRemaining(e -> cache.models.put(e.getKey(), e.getValue().asText()));
+            root.path("apis").fields().forEachRemaining(e -> cache.apis.put(e.getKey(), e.getValue().asText()));
+            root.path("files").fields().forEachRemaining(e -> cache.files.put(e.getKey(), e.getValue().asText()));
+            return cache;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    void save(File file) throws IOException {
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("version", FORMAT_VERSION);
+        root.put("global", global);
+        root.put("layout", layout);
+        root.put("models", models);
+        root.put("apis", apis);
+        root.put("files", files);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            Files.createDirectories(parent.toPath());
+        }
+        fileMapper.writerWithDefaultPrettyPrinter().writeValue(file, root);
+    }
+
+    /**
+     * Hash the contents of a file, or of all files below a directory
+     *
+     * @param path file or directory
+     */
+    static String digestFiles(Path path) {
+        if (!Files.exists(path)) {
+            return "missing";
+        }
+        try {
+            MessageDigest md = messageDigest();
+            List<Path> files;
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> walk = Files.walk(path)) {
+                    files = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+                }
+            } else {
+                files = Collections.singletonList(path);
+            }
+            for (Path file : files) {
+                md.update(path.relativize(file).toString().getBytes(StandardCharsets.UTF_8));
+                md.update(Files.readAllBytes(file));
+            }
+            return hex(md.digest());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Set<String> closure(Set<String> start, Map<String, Set<String>> edges) {
+        Set<String> seen = new TreeSet<>();
+        Deque<String> queue = new ArrayDeque<>();
+        for (String name : start) {
+            if (edges.containsKey(name) && seen.add(name)) {
+                queue.add(name);
+            }
+        }
+        while (!queue.isEmpty()) {
+            for (String next : edges.get(queue.poll())) {
+                if (edges.containsKey(next) && seen.add(next)) {
+                    queue.add(next);
+                }
+            }
+        }
+        return seen;
+    }
+
+    /**
+     * Names of the schemas referenced from a node, including discriminator
+     * mappings
+     */
+    private static Set<String> schemaRefs(JsonNode node, Map<String, Schema> schemas) {
+        Set<String> names = new TreeSet<>();
+        for (String ref : componentRefs(node)) {
+            if (ref.startsWith(SCHEMA_REF_PREFIX)) {
+                names.add(ref.substring(SCHEMA_REF_PREFIX.length()));
+            }
+        }
+        for (JsonNode discriminator : node.findValues("discriminator")) {
+            discriminator.path("mapping").fields().forEachRemaining(e -> {
+                String target = e.getValue().asText();
+                names.add(target.startsWith(SCHEMA_REF_PREFIX) ? target.substring(SCHEMA_REF_PREFIX.length()) : target);
+            });
+        }
+        names.retainAll(schemas.keySet());
+        return names;
+    }
+
+    private static Set<String> componentRefs(JsonNode node) {
+        Set<String> refs = new TreeSet<>();
+        for (JsonNode ref : node.findValues("$ref")) {
+            if (ref.isTextual() && ref.asText().startsWith(COMPONENT_REF_PREFIX)) {
+                refs.add(ref.asText());
+            }
+        }
+        return refs;
+    }
+
+    private static JsonNode resolveComponent(JsonNode components, String ref) {
+        String[] parts = ref.substring(COMPONENT_REF_PREFIX.length()).split("/", 2);
+        if (parts.length < 2) {
+            return null;
+        }
+        JsonNode component = components.path(parts[0]).get(parts[1]);
+        return component == null || component.isNull() ? null : component;
+    }
+
+    private static String digest(String value) {
+        return hex(messageDigest().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MessageDigest messageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return sb.toString();
+    }
+}
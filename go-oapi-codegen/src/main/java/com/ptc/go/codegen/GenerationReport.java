@@ -0,0 +1,117 @@
+package com.ptc.go.codegen;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.core.util.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Wall time, allocation and counters of a generator run, written as JSON with
+ * {@link GoOapiCodegenGenerator#GENERATION_REPORT}.
+ * <p>
+ * Allocation is measured on the thread running the phase, so work handed to
+ * other threads only shows up in wall time.
+ * Phases and counters are recorded from the generator thread only.
+ */
+class GenerationReport {
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private final Map<String, Phase> phases = new LinkedHashMap<>();
+    private final Map<String, Long> counters = new LinkedHashMap<>();
+
+    private static final class Phase {
+        long calls;
+        long nanos;
+        long allocatedBytes;
+    }
+
+    /**
+     * A running phase, recorded when closed
+     */
+    final class Timer implements AutoCloseable {
+        private final String phase;
+        private final long startNanos;
+        private final long startAllocated;
+
+        private Timer(String phase) {
+            this.phase = phase;
+            this.startNanos = System.nanoTime();
+            this.startAllocated = allocatedBytes();
+        }
+
+        @Override
+        public void close() {
+            long allocated = allocatedBytes();
+            record(phase, System.nanoTime() - startNanos,
+                    startAllocated < 0 || allocated < 0 ? -1 : allocated - startAllocated);
+        }
+    }
+
+    Timer time(String phase) {
+        return new Timer(phase);
+    }
+
+    /**
+     * Record a phase that started with the JVM, e.g. the whole run including
+     * JVM startup and parsing the spec, which happen before the generator is
+     * created
+     */
+    void recordSinceJvmStart(String phase) {
+        long millis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        record(phase, millis * 1000000, allocatedBytes());
+    }
+
+    void increment(String counter) {
+        add(counter, 1);
+    }
+
+    void add(String counter, long amount) {
+        counters.merge(counter, amount, Long::sum);
+    }
+
+    long counter(String counter) {
+        return counters.getOrDefault(counter, 0L);
+    }
+
+    void write(File file) throws IOException {
+        ObjectNode root = Json.mapper().createObjectNode();
+        ObjectNode phaseNodes = root.putObject("phases");
+        for (Map.Entry<String, Phase> entry : phases.entrySet()) {
+            Phase phase = entry.getValue();
+            ObjectNode node = phaseNodes.putObject(entry.getKey());
+            node.put("calls", phase.calls);
+            node.put("millis", phase.nanos / 1000000.0);
+            if (phase.allocatedBytes >= 0) {
+                node.put("allocatedBytes", phase.allocatedBytes);
+            }
+        }
+        ObjectNode counterNodes = root.putObject("counters");
+        counters.forEach(counterNodes::put);
+
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        Json.pretty().writeValue(file, root);
+    }
+
+    private void record(String name, long nanos, long allocatedBytes) {
+        Phase phase = phases.computeIfAbsent(name, k -> new Phase());
+        phase.calls++;
+        phase.nanos += nanos;
+        // negative once allocation can't be measured, and left out of the report
+        phase.allocatedBytes = allocatedBytes < 0 || phase.allocatedBytes < 0 ? -1
+                : phase.allocatedBytes + allocatedBytes;
+    }
+
+    private static long allocatedBytes() {
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+}
@@ -2,6 +2,10 @@ package com.ptc.go.codegen;
 
 import org.apache.commons.lang3.StringUtils;
 import org.openapitools.codegen.*;
+import org.openapitools.codegen.api.TemplatingEngineAdapter;
+import org.openapitools.codegen.api.TemplatingExecutor;
+import org.openapitools.codegen.config.GlobalSettings;
+import org.openapitools.codegen.templating.MustacheEngineAdapter;
 import org.openapitools.codegen.model.*;
 import org.openapitools.codegen.utils.*;
 import org.slf4j.*;
@@ -11,6 +15,12 @@ import io.swagger.v3.oas.models.media.*;
 import io.swagger.v3.oas.models.parameters.*;
 import io.swagger.v3.parser.util.*;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
 import java.util.stream.*;
 
@@ -21,6 +31,25 @@ public class GoOapiCodegenGenerator extends org.openapitools.codegen.languages.G
     protected String sourceFolder = "src";
     protected String apiVersion = "1.0.0";
     protected final static String OS_FILE_TYPE = "HttpFile";
+    public final static String INCREMENTAL_CACHE = "incrementalCache";
+    public final static String PREPROCESS_CONFIG = "preprocessConfig";
+    public final static String GENERATION_REPORT = "generationReport";
+    public final static String CLIENT_TESTS = "clientTests";
+
+    protected String incrementalCache = null;
+    protected String preprocessConfig = null;
+    protected String generationReport = null;
+    private final GenerationReport report = new GenerationReport();
+    private GenerationReport.Timer generateFilesTimer = null;
+    private GeneratorMustacheEngineAdapter generatorTemplatingEngine = null;
+    private GenerationCache generationCache = null;
+    // schema and API names whose outputs are rendered again, null to render everything
+    private Set<String> modelsToRender = null;
+    private Set<String> apisToRender = null;
+    // supporting files rendered again although no model or API changed
+    private Set<String> filesToRender = null;
+    private boolean layoutChanged = false;
+    private int reusedFiles = 0;
 
     /**
      * Configures a friendly name for the generator. This will be used by the
@@ -41,9 +70,62 @@ public class GoOapiCodegenGenerator extends org.openapitools.codegen.languages.G
     @Override
     public OperationsMap postProcessOperationsWithModels(OperationsMap objs, List<ModelMap> allModels) {
         OperationsMap results = super.postProcessOperationsWithModels(objs, allModels);
+
+        Map<String, CodegenModel> models = new HashMap<>();
+        for (ModelMap m : allModels) {
+            models.put(m.getModel().classname, m.getModel());
+        }
+        addPagers(results.getOperations().getOperation(), models);
+        addParameterEncoders(results, models);
         return results;
     }
 
+    /**
+     * Paginated list operations get an iterator over the items of all their
+     * pages, see {@link Pagination}.
+     *
+     * @param operations - the operations of an API
+     * @param models     - all the models by class name
+     */
+    protected void addPagers(List<CodegenOperation> operations, Map<String, CodegenModel> models) {
+        int pagers = 0;
+        for (CodegenOperation operation : operations) {
+            if (Pagination.apply(operation, models)) {
+                pagers++;
+            }
+        }
+        report.add("pagedOperations", pagers);
+    }
+
+    /**
+     * The parameters of the operations are turned into strings by generated
+     * code rather than by parameterToString, see {@link ParameterEncoders}, and
+     * the imports of the API follow the code.
+     *
+     * @param results - the operations of an API and their imports
+     * @param models  - all the models by class name
+     */
+    protected void addParameterEncoders(OperationsMap results, Map<String, CodegenModel> models) {
+        int reflective = 0;
+        boolean usesReflect = false;
+        Set<String> imports = new TreeSet<>();
+        for (CodegenOperation operation : results.getOperations().getOperation()) {
+            reflective += ParameterEncoders.apply(operation, models);
+            usesReflect |= ParameterEncoders.usesReflect(operation);
+            imports.addAll(ParameterEncoders.imports(operation));
+        }
+        if (!usesReflect) {
+            results.getImports().removeIf(x -> "reflect".equals(x.get("import")));
+        }
+        for (Map<String, String> x : results.getImports()) {
+            imports.remove(x.get("import"));
+        }
+        for (String x : imports) {
+            results.getImports().add(createMapping("import", x));
+        }
+        report.add("reflectiveParameters", reflective);
+    }
+
     /**
      * Returns human-friendly help for the generator. Provide the consumer with help
      * tips, parameters here
@@ -61,18 +143,137 @@ public class GoOapiCodegenGenerator extends org.openapitools.codegen.languages.G
         typeMapping.put("binary", OS_FILE_TYPE);
         templateDir = "go-oapi-codegen";
         supportsMultipleInheritance = true;
+
+        cliOptions.add(new CliOption(INCREMENTAL_CACHE,
+                "File to keep content hashes of the generated models and APIs in. When set, a later run into the same"
+                        + " output only renders the models and APIs whose inputs changed. Combine with --minimal-update to"
+                        + " also keep the files that are rendered again with the same content untouched."));
+        cliOptions.add(new CliOption(PREPROCESS_CONFIG,
+                "bindgen-config.json file whose generate.preprocess remove/update rules are applied to the spec"
+                        + " before inline models are flattened."));
+        cliOptions.add(new CliOption(GENERATION_REPORT,
+                "File to write the wall time and allocation of each generation phase and the flattening counters to,"
+                        + " as JSON. true writes .openapi-generator/generation-report.json in the output directory."));
+        cliOptions.add(CliOption.newBoolean(CLIENT_TESTS,
+                "Also generate the *_test.go tests and benchmarks of the client support code. Not generated when the"
+                        + " apiTests global property is false.", false));
+    }
+
+    @Override
+    public void processOpts() {
+        super.processOpts();
+
+        supportingFiles.add(new SupportingFile("batch.mustache", "", "batch.go"));
+        supportingFiles.add(new SupportingFile("pagination.mustache", "", "pagination.go"));
+        supportingFiles.add(new SupportingFile("observer.mustache", "", "observer.go"));
+        supportingFiles.add(new SupportingFile("debug_log.mustache", "", "debug_log.go"));
+        supportingFiles.add(new SupportingFile("server_url.mustache", "", "server_url.go"));
+
+        if (convertPropertyToBooleanAndWriteBack(CLIENT_TESTS)
+                && !"false".equalsIgnoreCase(GlobalSettings.getProperty(CodegenConstants.API_TESTS))) {
+            for (String test : Arrays.asList("decode_bench", "discriminator", "marshal", "multipart", "transport",
+                    "retry", "cache", "coalesce", "batch", "pagination", "observer", "debug_log", "parameters",
+                    "server_url")) {
+                supportingFiles.add(new SupportingFile(test + "_test.mustache", "", test + "_test.go"));
+            }
+            additionalProperties.put("parameterEncoderCases", ParameterEncoders.testCases());
+        }
+
+        if (additionalProperties.containsKey(INCREMENTAL_CACHE)) {
+            incrementalCache = additionalProperties.get(INCREMENTAL_CACHE).toString();
+        }
+
+        if (additionalProperties.containsKey(PREPROCESS_CONFIG)) {
+            preprocessConfig = additionalProperties.get(PREPROCESS_CONFIG).toString();
+        }
+
+        if (additionalProperties.containsKey(GENERATION_REPORT)) {
+            generationReport = additionalProperties.get(GENERATION_REPORT).toString();
+            if ("true".equalsIgnoreCase(generationReport)) {
+                generationReport = Paths.get(getOutputDir(), ".openapi-generator", "generation-report.json")
+                        .toString();
+            } else if ("false".equalsIgnoreCase(generationReport)) {
+                generationReport = null;
+            }
+        }
     }
 
     @Override
     public ModelsMap postProcessModels(ModelsMap objs) {
-        resolveParameterNamingConflicts(objs);
-        addUnconstrainedDiscriminatorInheritance(objs);
-        objs = super.postProcessModels(objs);
-        prefixConstNamesWithType(objs);
+        try (GenerationReport.Timer timer = report.time("postProcessModels")) {
+            resolveParameterNamingConflicts(objs);
+            addUnconstrainedDiscriminatorInheritance(objs);
+            objs = super.postProcessModels(objs);
+            prefixConstNamesWithType(objs);
+            addDiscriminatorCases(objs);
+        }
+
+        return objs;
+    }
+
+    @Override
+    public Map<String, ModelsMap> postProcessAllModels(Map<String, ModelsMap> objs) {
+        objs = super.postProcessAllModels(objs);
 
+        Map<String, CodegenModel> models = new HashMap<>();
+        for (ModelsMap modelsMap : objs.values()) {
+            for (ModelMap m : modelsMap.getModels()) {
+                models.put(m.getModel().classname, m.getModel());
+            }
+        }
+        addOneOfDecisionTrees(models);
+        addDirectMarshalers(models);
         return objs;
     }
 
+    /**
+     * oneOf models without a discriminator pick the schemas to decode into with a
+     * decision tree computed from the schemas, see {@link OneOfDecisionTree}.
+     *
+     * @param models - all the models by class name
+     */
+    protected void addOneOfDecisionTrees(Map<String, CodegenModel> models) {
+        for (CodegenModel model : models.values()) {
+            if (model.oneOf.isEmpty() || model.discriminator != null) {
+                continue;
+            }
+            Map<String, Object> decision = OneOfDecisionTree.of(model, models,
+                    m -> !useOneOfDiscriminatorLookup || rejectsAdditionalProperties(m));
+            if (decision != null) {
+                model.vendorExtensions.put(OneOfDecisionTree.EXTENSION, decision);
+            } else {
+                LOGGER.warn("{} has more than {} oneOf schemas, every schema is tried when decoding it",
+                        model.classname, OneOfDecisionTree.MAX_BITS);
+            }
+        }
+    }
+
+    /**
+     * @return whether the schema of a model sets additionalProperties: false, so
+     *         that json.Unmarshal into it fails on unknown keys with
+     *         useOneOfDiscriminatorLookup
+     */
+    private boolean rejectsAdditionalProperties(CodegenModel model) {
+        Schema schema = ModelUtils.getSchema(openAPI, model.name);
+        return schema != null && Boolean.FALSE.equals(schema.getAdditionalProperties());
+    }
+
+    /**
+     * Models write their properties straight to the output in MarshalJSON when
+     * they can, see {@link DirectMarshal}.
+     *
+     * @param models - all the models by class name
+     */
+    protected void addDirectMarshalers(Map<String, CodegenModel> models) {
+        int direct = 0;
+        for (CodegenModel model : models.values()) {
+            if (DirectMarshal.apply(model, models)) {
+                direct++;
+            }
+        }
+        report.add("directMarshalModels", direct);
+    }
+
     /**
      * When creating enums, a const is created for each possible value. This method
      * prefixes the name of the const
@@ -114,29 +315,49 @@ public class GoOapiCodegenGenerator extends org.openapitools.codegen.languages.G
         }
     }
 
+    /**
+     * Appends underscores to property names that clash with the accessors
+     * generated for another property (Get, GetOk, Has and Set). Properties are
+     * renamed in order, and each one is checked against the current names of the
+     * others, so a renamed property frees its old accessor names and reserves new
+     * ones.
+     *
+     * @param objs - Map of the models to create
+     */
     protected void resolveParameterNamingConflicts(ModelsMap objs) {
         for (ModelMap m : objs.getModels()) {
             CodegenModel model = m.getModel();
-            for (CodegenProperty param : model.allVars) {
-                class Local<T> {
-                    public T value;
-                }
 
-                final Local<String> pName = new Local<>();
-                pName.value = param.name;
+            // accessor name -> number of properties generating it
+            Map<String, Integer> accessors = new HashMap<>(model.allVars.size() * 8);
+            for (CodegenProperty param : model.allVars) {
+                reserveAccessors(accessors, param.name, 1);
+            }
 
-                while (model.allVars.stream().filter(o -> ("Get" + o.name).equals(pName.value)
-                        || ("Get" + o.name + "Ok").equals(pName.value)
-                        || ("Has" + o.name).equals(pName.value)
-                        || ("Set" + o.name).equals(pName.value)).findFirst().isPresent()) {
-                    pName.value += "_";
+            for (CodegenProperty param : model.allVars) {
+                String pName = param.name;
+                while (accessors.containsKey(pName)) {
+                    pName += "_";
                 }
 
-                param.name = pName.value;
+                if (!pName.equals(param.name)) {
+                    reserveAccessors(accessors, param.name, -1);
+                    reserveAccessors(accessors, pName, 1);
+                    param.name = pName;
+                }
             }
         }
     }
 
+    private static void reserveAccessors(Map<String, Integer> accessors, String name, int count) {
+        for (String accessor : new String[] { "Get" + name, "Get" + name + "Ok", "Has" + name, "Set" + name }) {
+            accessors.compute(accessor, (k, v) -> {
+                int total = (v == null ? 0 : v) + count;
+                return total == 0 ? null : total;
+            });
+        }
+    }
+
     protected void addUnconstrainedDiscriminatorInheritance(ModelsMap objs) {
         for (ModelMap m : objs.getModels()) {
             CodegenModel model = m.getModel();
@@ -151,6 +372,32 @@ public class GoOapiCodegenGenerator extends org.openapitools.codegen.languages.G
         }
     }
 
+    /**
+     * oneOf and anyOf models dispatch on the discriminator value with a Go switch,
+     * which cannot repeat a case. An explicit and an implicit mapping can share a
+     * name, so only the first model mapped to each name is kept, which is the one
+     * the lookup matched before.
+     *
+     * @param objs - Map of the models to create
+     */
+    protected void addDiscriminatorCases(ModelsMap objs) {
+        for (ModelMap m : objs.getModels()) {
+            CodegenDiscriminator discriminator = m.getModel().discriminator;
+            if (discriminator == null || discriminator.getMappedModels() == null) {
+                continue;
+            }
+
+            Set<String> mappingNames = new HashSet<>();
+            List<CodegenDiscriminator.MappedModel> cases = new ArrayList<>();
+            for (CodegenDiscriminator.MappedModel mappedModel : discriminator.getMappedModels()) {
+                if (mappingNames.add(mappedModel.getMappingName())) {
+                    cases.add(mappedModel);
+                }
+            }
+            discriminator.getVendorExtensions().put("x-go-discriminator-cases", cases);
+        }
+    }
+
     protected void addAdditionalImports(ModelsMap objs) {
         boolean addedTimeImport = objs.getImports().stream()
                 .anyMatch(x -> x.values().stream().anyMatch(y -> "time".equals(y)));
@@ -166,22 +413,274 @@ public class GoOapiCodegenGenerator extends org.openapitools.codegen.languages.G
         }
     }
 
+    /**
+     * Apply the preprocess rules before the generator reads the info object, so
+     * rules can also change the title, description or version
+     */
+    @Override
+    public void preprocessOpenAPI(OpenAPI openAPI) {
+        if (preprocessConfig != null) {
+            try (GenerationReport.Timer timer = report.time("preprocess")) {
+                preprocess(openAPI);
+            }
+        }
+
+        super.preprocessOpenAPI(openAPI);
+    }
+
     @Override
     public void processOpenAPI(OpenAPI openAPI) {
         InlineModelFlattener inlineModelResolver = new InlineModelFlattener();
         inlineModelResolver.setInlineSchemaNameMapping(inlineSchemaNameMapping());
+        inlineModelResolver.setInlineSchemaOptions(inlineSchemaOption());
+        inlineModelResolver.setReport(report);
         inlineModelResolver.flatten(openAPI);
 
-        for (Map.Entry<String, Schema> x : openAPI.getComponents().getSchemas().entrySet()) {
-            Schema model = x.getValue();
+        try (GenerationReport.Timer timer = report.time("fixModelFreeform")) {
+            for (Map.Entry<String, Schema> x : openAPI.getComponents().getSchemas().entrySet()) {
+                Schema model = x.getValue();
 
-            fixModelFreeform(model);
-            if (model instanceof ArraySchema) {
-                fixModelFreeform(((ArraySchema) model).getItems());
+                fixModelFreeform(model);
+                if (model instanceof ArraySchema) {
+                    fixModelFreeform(((ArraySchema) model).getItems());
+                }
             }
         }
 
         super.processOpenAPI(openAPI);
+
+        if (incrementalCache != null) {
+            selectChangedOutputs(openAPI);
+        }
+
+        // models, APIs and supporting files are generated between here and postProcess
+        generateFilesTimer = report.time("generateFiles");
+    }
+
+    private void preprocess(OpenAPI openAPI) {
+        SpecPreprocessor preprocessor;
+        try {
+            preprocessor = SpecPreprocessor.fromConfig(new File(preprocessConfig));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read preprocess rules from " + preprocessConfig, e);
+        }
+
+        preprocessor.apply(openAPI);
+        LOGGER.info("Applied {} preprocess rules", preprocessor.size());
+    }
+
+    /**
+     * Compare the flattened spec with the hashes stored by the previous run to
+     * find the models and APIs whose output would not change. Every model and
+     * operation is still processed, since the post-processing of one model looks
+     * at others; only the rendering of the unchanged outputs is skipped, see
+     * {@link #reusableOutput}. Any change that could affect the rest of the
+     * output falls back to a full generation.
+     *
+     * @param openAPI flattened spec
+     */
+    private void selectChangedOutputs(OpenAPI openAPI) {
+        Object packageVersion = additionalProperties.get(CodegenConstants.PACKAGE_VERSION);
+        generationCache = GenerationCache.of(openAPI, generatorFingerprint(),
+                packageVersion == null ? null : packageVersion.toString(), this::sanitizeTag);
+        GenerationCache previous = GenerationCache.load(new File(incrementalCache));
+        if (!generationCache.canReuse(previous)) {
+            LOGGER.info("No reusable generation cache at {}, generating everything", incrementalCache);
+            return;
+        }
+
+        modelsToRender = generationCache.modelsToRender(previous);
+        apisToRender = generationCache.apisToRender(previous);
+        filesToRender = generationCache.filesToRender(previous);
+        layoutChanged = generationCache.layoutChanged(previous);
+        LOGGER.info("Generating {} of {} models and {} of {} APIs that changed since the last run",
+                modelsToRender.size(), generationCache.modelCount(), apisToRender.size(), generationCache.apiCount());
+    }
+
+    /**
+     * Returns the file the previous run rendered a template to, when rendering
+     * it again would give the same content. Model and API templates are reused
+     * when their model or API did not change, and supporting files, which may
+     * iterate all the models and APIs, when none of them changed and their own
+     * inputs, if any, did not change either. Outputs that are missing are always
+     * rendered.
+     *
+     * @param bundle       data the template is rendered with
+     * @param templateFile name of the template
+     * @return the existing output, or null to render the template
+     */
+    Path reusableOutput(Map<String, Object> bundle, String templateFile) {
+        if (modelsToRender == null) {
+            return null;
+        }
+        String target;
+        if (modelTemplateFiles().containsKey(templateFile) || modelDocTemplateFiles().containsKey(templateFile)) {
+            Object models = bundle.get("models");
+            if (!(models instanceof List) || ((List<?>) models).size() != 1
+                    || !(((List<?>) models).get(0) instanceof ModelMap)) {
+                return null;
+            }
+            String name = ((ModelMap) ((List<?>) models).get(0)).getModel().name;
+            if (name == null || modelsToRender.contains(name)) {
+                return null;
+            }
+            if (modelTemplateFiles().containsKey(templateFile)) {
+                target = modelFilename(templateFile, name);
+            } else {
+                String suffix = getDocExtension() != null ? getDocExtension()
+                        : modelDocTemplateFiles().get(templateFile);
+                target = modelDocFileFolder() + File.separator + toModelDocFilename(name) + suffix;
+            }
+        } else if (apiTemplateFiles().containsKey(templateFile) || apiDocTemplateFiles().containsKey(templateFile)) {
+            Object tag = bundle.get("baseName");
+            if (!(tag instanceof String) || apisToRender.contains(tag)) {
+                return null;
+            }
+            target = apiTemplateFiles().containsKey(templateFile) ? apiFilename(templateFile, (String) tag)
+                    : apiDocFilename(templateFile, (String) tag);
+        } else {
+            if (!modelsToRender.isEmpty() || !apisToRender.isEmpty() || layoutChanged) {
+                return null;
+            }
+            List<SupportingFile> files = supportingFiles.stream()
+                    .filter(file -> templateFile.equals(file.getTemplateFile())).collect(Collectors.toList());
+            if (files.size() != 1) {
+                return null;
+            }
+            SupportingFile file = files.get(0);
+            String relative = StringUtils.isEmpty(file.getFolder()) ? file.getDestinationFilename()
+                    : file.getFolder() + "/" + file.getDestinationFilename();
+            if (filesToRender.contains(relative)) {
+                return null;
+            }
+            target = outputFolder() + File.separator + relative.replace('/', File.separatorChar);
+        }
+        Path path = Paths.get(target);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    /**
+     * Everything besides the spec that the generated files depend on, except for
+     * the package and spec versions, which only a few supporting files render
+     */
+    private String generatorFingerprint() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(DefaultCodegen.class.getPackage().getImplementationVersion()).append('\n');
+        try {
+            sb.append(GenerationCache.digestFiles(
+                    Paths.get(getClass().getProtectionDomain().getCodeSource().getLocation().toURI()))).append('\n');
+        } catch (Exception e) {
+            // no way to tell whether the generator changed
+            sb.append(UUID.randomUUID()).append('\n');
+        }
+        if (templateDir() != null && !templateDir().equals(embeddedTemplateDir())) {
+            sb.append(GenerationCache.digestFiles(Paths.get(templateDir()))).append('\n');
+        }
+
+        Map<String, Object> options = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : additionalProperties.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof String || value instanceof Number || value instanceof Boolean) {
+                options.put(entry.getKey(), value);
+            }
+        }
+        options.remove(INCREMENTAL_CACHE);
+        // the package and spec versions are hashed with the supporting files showing them
+        options.remove(CodegenConstants.PACKAGE_VERSION);
+        options.remove("appVersion");
+        options.remove("version");
+        options.remove(GENERATION_REPORT);
+        options.remove("inputSpec");
+        options.remove("generatedDate");
+        options.remove("generatedYear");
+        sb.append(options).append('\n');
+        for (Map<String, String> mapping : Arrays.asList(typeMapping(), importMapping(), instantiationTypes(),
+                schemaMapping(), nameMapping(), parameterNameMapping(), modelNameMapping(), enumNameMapping(),
+                operationIdNameMapping(), inlineSchemaNameMapping(), inlineSchemaOption())) {
+            sb.append(new TreeMap<>(mapping)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void postProcess() {
+        if (generationCache != null) {
+            if (modelsToRender != null) {
+                LOGGER.info("Reused {} unchanged files", reusedFiles);
+                report.add("reusedFiles", reusedFiles);
+            }
+            try {
+                generationCache.save(new File(incrementalCache));
+            } catch (IOException e) {
+                LOGGER.warn("Could not write generation cache {}", incrementalCache, e);
+            }
+        }
+
+        if (generateFilesTimer != null) {
+            generateFilesTimer.close();
+            generateFilesTimer = null;
+        }
+        if (generationReport != null) {
+            report.recordSinceJvmStart("total");
+            try {
+                report.write(new File(generationReport));
+            } catch (IOException e) {
+                LOGGER.warn("Could not write generation report {}", generationReport, e);
+            }
+        }
+        super.postProcess();
+    }
+
+    /**
+     * Times template rendering for the generation report, and reuses the
+     * outputs of the previous run that would be rendered the same, see
+     * {@link #reusableOutput}. Only the default Mustache engine is replaced, and
+     * only when either option is set; it is subclassed rather than wrapped so
+     * the generator still configures its compiler.
+     * <p>
+     * DefaultGenerator asks for the engine before processOpts, so the options
+     * are read from the additional properties.
+     */
+    @Override
+    public TemplatingEngineAdapter getTemplatingEngine() {
+        TemplatingEngineAdapter engine = super.getTemplatingEngine();
+        if (engine == null || engine.getClass() != MustacheEngineAdapter.class) {
+            return engine;
+        }
+        Object reportOption = additionalProperties.get(GENERATION_REPORT);
+        boolean timed = reportOption != null && !"false".equalsIgnoreCase(reportOption.toString());
+        if (!timed && !additionalProperties.containsKey(INCREMENTAL_CACHE)) {
+            return engine;
+        }
+        if (generatorTemplatingEngine == null) {
+            generatorTemplatingEngine = new GeneratorMustacheEngineAdapter(timed);
+        }
+        return generatorTemplatingEngine;
+    }
+
+    private class GeneratorMustacheEngineAdapter extends MustacheEngineAdapter {
+        private final boolean timed;
+
+        GeneratorMustacheEngineAdapter(boolean timed) {
+            this.timed = timed;
+        }
+
+        @Override
+        public String compileTemplate(TemplatingExecutor executor, Map<String, Object> bundle, String templateFile)
+                throws IOException {
+            Path reused = reusableOutput(bundle, templateFile);
+            if (reused != null) {
+                reusedFiles++;
+                // written back as it is, or left untouched with --minimal-update
+                return new String(Files.readAllBytes(reused), StandardCharsets.UTF_8);
+            }
+            if (!timed) {
+                return super.compileTemplate(executor, bundle, templateFile);
+            }
+            try (GenerationReport.Timer timer = report.time("templates")) {
+                return super.compileTemplate(executor, bundle, templateFile);
+            }
+        }
     }
 
     private void fixModelFreeform(Schema model) {
@@ -409,15 +908,6 @@ public class GoOapiCodegenGenerator extends org.openapitools.codegen.languages.G
     }
     
     private String namifyEnumValue(String enumValue) {
-        String name = StringUtils.replace(enumValue, "_", " ");
-        name = StringUtils.lowerCase(name);
-        String[] nameparts = name.split(" ");
-        String result ="";
-
-        for (String part : nameparts) {
-            result += StringUtils.capitalize(part);
-        }
-
-        return result;
+        return Names.enumName(enumValue);
     }
 }
@@ -17,11 +17,6 @@
 
 package com.ptc.go.codegen;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
-import com.fasterxml.jackson.databind.MapperFeature;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import io.swagger.v3.core.util.Json;
 import io.swagger.v3.oas.models.*;
 import io.swagger.v3.oas.models.PathItem.HttpMethod;
 import io.swagger.v3.oas.models.callbacks.Callback;
@@ -36,31 +31,39 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
 
 public class InlineModelFlattener {
     private OpenAPI openAPI;
     private Map<String, Schema> addedModels = new HashMap<>();
-    private Map<String, String> generatedSignature = new HashMap<>();
+    private SchemaSignatureIndex generatedSignature = new SchemaSignatureIndex();
     private Map<String, String> inlineSchemaNameMapping = new HashMap<>();
     private Map<String, String> inlineSchemaOptions = new HashMap<>();
     private Set<String> inlineSchemaNameMappingValues = new HashSet<>();
     public boolean resolveInlineEnums = false;
     public boolean skipSchemaReuse = false; // skip reusing inline schema if set to true
     public Boolean refactorAllOfInlineSchemas = null; // refactor allOf inline schemas into $ref
+    public boolean parallelPathFlattening = false; // gather inline schemas of paths concurrently
+    public boolean summarizeInlineSchemaLogs = false; // log created inline schemas once per run
 
-    // structure mapper sorts properties alphabetically on write to ensure models
-    // are
-    // serialized consistently for lookup of existing models
-    private static ObjectMapper structureMapper;
+    // timings and counters of the flatten runs
+    private GenerationReport report = new GenerationReport();
+
+    // inline schemas created without a title, when their logs are summarized
+    private List<String> untitledSchemas = new ArrayList<>();
 
     // a set to keep track of names generated for inline schemas
     private Set<String> uniqueNames = new HashSet<>();
 
-    static {
-        structureMapper = Json.mapper().copy();
-        structureMapper.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
-        structureMapper.writer(new DefaultPrettyPrinter());
-    }
+    // lowest suffix that may still be free for each name passed to uniqueName
+    private Map<String, Integer> nextNameSuffix = new HashMap<>();
+
+    // isModelNeeded results for the current flatten run, keyed by schema identity
+    private Map<Schema, Boolean> modelNeededCache = new IdentityHashMap<>();
+    // names, promotions and rewrites made right away, using modelNeededCache
+    private Promotions inPlace = new Promotions(modelNeededCache);
 
     final Logger LOGGER = LoggerFactory.getLogger(InlineModelFlattener.class);
 
@@ -89,10 +92,26 @@ public class InlineModelFlattener {
         if (this.inlineSchemaOptions.containsKey("RESOLVE_INLINE_ENUMS")) {
             this.resolveInlineEnums = Boolean.valueOf(this.inlineSchemaOptions.get("RESOLVE_INLINE_ENUMS"));
         }
+
+        if (this.inlineSchemaOptions.containsKey("PARALLEL_PATH_FLATTENING")) {
+            this.parallelPathFlattening = Boolean.valueOf(this.inlineSchemaOptions.get("PARALLEL_PATH_FLATTENING"));
+        }
+
+        if (this.inlineSchemaOptions.containsKey("SUMMARIZE_INLINE_SCHEMA_LOGS")) {
+            this.summarizeInlineSchemaLogs = Boolean
+                    .valueOf(this.inlineSchemaOptions.get("SUMMARIZE_INLINE_SCHEMA_LOGS"));
+        }
+    }
+
+    void setReport(GenerationReport report) {
+        this.report = report;
     }
 
     void flatten(OpenAPI openAPI) {
         this.openAPI = openAPI;
+        this.modelNeededCache = new IdentityHashMap<>();
+        this.inPlace = new Promotions(modelNeededCache);
+        this.nextNameSuffix = new HashMap<>();
 
         if (this.openAPI.getComponents() == null) {
             this.openAPI.setComponents(new Components());
@@ -102,12 +121,31 @@ public class InlineModelFlattener {
             this.openAPI.getComponents().setSchemas(new HashMap<String, Schema>());
         }
 
-        flattenPaths();
-        flattenComponents();
+        try (GenerationReport.Timer timer = report.time("flatten.paths")) {
+            flattenPaths();
+        }
+        try (GenerationReport.Timer timer = report.time("flatten.components")) {
+            flattenComponents();
+        }
+
+        if (!untitledSchemas.isEmpty()) {
+            int shown = Math.min(untitledSchemas.size(), 10);
+            LOGGER.info(
+                    "{} inline schemas created without a title: {}{}. To have complete control of the model names, set the `title` field or use the modelNameMapping option (e.g. --model-name-mappings {}=NewModel,ModelA=NewModelA in CLI) or inlineSchemaNameMapping option (--inline-schema-name-mappings {}=NewModel,ModelA=NewModelA in CLI).",
+                    untitledSchemas.size(), String.join(", ", untitledSchemas.subList(0, shown)),
+                    shown < untitledSchemas.size() ? ", ..." : "", untitledSchemas.get(0), untitledSchemas.get(0));
+            untitledSchemas.clear();
+        }
     }
 
     /**
      * Flatten inline models in Paths
+     * <p>
+     * With parallelPathFlattening, the inline schemas of every path are first
+     * gathered concurrently into a {@link PathRecording}, without taking names or
+     * touching the spec. The recordings are then committed one by one in path
+     * order, so names, reused schemas and $ref rewrites come out exactly as if the
+     * paths had been flattened sequentially.
      */
     private void flattenPaths() {
         Paths paths = openAPI.getPaths();
@@ -115,40 +153,206 @@ public class InlineModelFlattener {
             return;
         }
 
-        for (Map.Entry<String, PathItem> pathsEntry : paths.entrySet()) {
-            PathItem path = pathsEntry.getValue();
-            List<Map.Entry<HttpMethod, Operation>> toFlatten = new ArrayList<>(path.readOperationsMap().entrySet());
-
-            // use path name (e.g. /foo/bar) and HTTP verb to come up with a name
-            // in case operationId is not defined later in other methods
-            String pathname = pathsEntry.getKey();
-
-            // Include callback operation as well
-            for (Map.Entry<HttpMethod, Operation> operationEntry : new LinkedHashMap<>(path.readOperationsMap())
-                    .entrySet()) {
-                Operation operation = operationEntry.getValue();
-                Map<String, Callback> callbacks = operation.getCallbacks();
-                if (callbacks != null) {
-                    for (Map.Entry<String, Callback> callbackEntry : callbacks.entrySet()) {
-                        Callback callback = callbackEntry.getValue();
-                        for (Map.Entry<String, PathItem> pathItemEntry : callback.entrySet()) {
-                            PathItem pathItem = pathItemEntry.getValue();
-                            toFlatten.addAll(pathItem.readOperationsMap().entrySet());
-                        }
+        List<Map.Entry<String, PathItem>> pathEntries = new ArrayList<>(paths.entrySet());
+        List<PathRecording> recordings = parallelPathFlattening ? recordPaths(pathEntries) : null;
+        if (recordings == null) {
+            for (Map.Entry<String, PathItem> pathsEntry : pathEntries) {
+                flattenPath(pathsEntry.getKey(), pathsEntry.getValue(), inPlace);
+            }
+            return;
+        }
+
+        for (PathRecording recording : recordings) {
+            for (Map.Entry<Schema, Boolean> entry : recording.modelNeeded.entrySet()) {
+                modelNeededCache.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+        }
+
+        // A path that reaches an object another path (or the path itself) also
+        // reaches, e.g. a $ref request body, was recorded against the unflattened
+        // object. It is flattened in place when its turn comes instead, seeing
+        // what the paths before it changed, as in the sequential run.
+        Set<Object> claimed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (int i = 0; i < pathEntries.size(); i++) {
+            PathRecording recording = recordings.get(i);
+            boolean shared = recording.revisited;
+            for (Object owned : recording.owned) {
+                shared |= !claimed.add(owned);
+            }
+            if (shared) {
+                report.increment("pathsFlattenedInPlace");
+                flattenPath(pathEntries.get(i).getKey(), pathEntries.get(i).getValue(), inPlace);
+            } else {
+                recording.commit();
+            }
+        }
+    }
+
+    /**
+     * Gather the inline schemas of all paths on a fork-join pool
+     *
+     * @param pathEntries paths to record
+     * @return one recording per path in the given order, or null to flatten the
+     *         paths in place
+     */
+    private List<PathRecording> recordPaths(List<Map.Entry<String, PathItem>> pathEntries) {
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            return pool.submit(() -> pathEntries.parallelStream()
+                    .map(pathsEntry -> {
+                        PathRecording recording = new PathRecording();
+                        flattenPath(pathsEntry.getKey(), pathsEntry.getValue(), recording);
+                        return recording;
+                    })
+                    .collect(Collectors.toList())).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Parallel path flattening interrupted, flattening paths sequentially", e);
+            return null;
+        } catch (ExecutionException e) {
+            LOGGER.warn("Parallel path flattening failed, flattening paths sequentially", e.getCause());
+            return null;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Flatten the inline models of one path and its callbacks
+     *
+     * @param pathname   path name (e.g. /foo/bar)
+     * @param path       target path
+     * @param promotions where names are taken and schemas promoted
+     */
+    private void flattenPath(String pathname, PathItem path, Promotions promotions) {
+        List<Map.Entry<HttpMethod, Operation>> toFlatten = new ArrayList<>(path.readOperationsMap().entrySet());
+
+        // Include callback operation as well
+        for (Map.Entry<HttpMethod, Operation> operationEntry : new LinkedHashMap<>(path.readOperationsMap())
+                .entrySet()) {
+            Operation operation = operationEntry.getValue();
+            Map<String, Callback> callbacks = operation.getCallbacks();
+            if (callbacks != null) {
+                for (Map.Entry<String, Callback> callbackEntry : callbacks.entrySet()) {
+                    Callback callback = callbackEntry.getValue();
+                    for (Map.Entry<String, PathItem> pathItemEntry : callback.entrySet()) {
+                        PathItem pathItem = pathItemEntry.getValue();
+                        toFlatten.addAll(pathItem.readOperationsMap().entrySet());
                     }
                 }
             }
+        }
 
-            // flatten path-level parameters
-            flattenParameters(pathname, path.getParameters(), null);
+        // flatten path-level parameters
+        // use path name (e.g. /foo/bar) and HTTP verb to come up with a name
+        // in case operationId is not defined later in other methods
+        flattenParameters(pathname, path.getParameters(), null, promotions);
+
+        // flatten parameters for each operation
+        for (Map.Entry<HttpMethod, Operation> operationEntry : toFlatten) {
+            Operation operation = operationEntry.getValue();
+            String inlineSchemaName = this.getInlineSchemaName(operationEntry.getKey(), pathname);
+            flattenRequestBody(inlineSchemaName, operation, promotions);
+            flattenParameters(inlineSchemaName, operation.getParameters(), operation.getOperationId(), promotions);
+            flattenResponses(inlineSchemaName, operation, promotions);
+        }
+    }
+
+    /**
+     * Takes names, promotes schemas to components and rewrites references as
+     * the paths are flattened, right away
+     */
+    private class Promotions {
+        final Map<Schema, Boolean> modelNeeded;
 
-            // flatten parameters for each operation
-            for (Map.Entry<HttpMethod, Operation> operationEntry : toFlatten) {
-                Operation operation = operationEntry.getValue();
-                String inlineSchemaName = this.getInlineSchemaName(operationEntry.getKey(), pathname);
-                flattenRequestBody(inlineSchemaName, operation);
-                flattenParameters(inlineSchemaName, operation.getParameters(), operation.getOperationId());
-                flattenResponses(inlineSchemaName, operation);
+        Promotions(Map<Schema, Boolean> modelNeeded) {
+            this.modelNeeded = modelNeeded;
+        }
+
+        /**
+         * Note an object the path flattening may change
+         */
+        void visit(Object target) {
+        }
+
+        boolean isModelNeeded(Schema schema) {
+            return InlineModelFlattener.this.isModelNeeded(schema, modelNeeded);
+        }
+
+        String name(String title, String modelName) {
+            return resolveModelName(title, modelName);
+        }
+
+        Schema promote(String name, Schema schema) {
+            return makeSchemaInComponents(name, schema);
+        }
+
+        void apply(Runnable rewrite) {
+            rewrite.run();
+        }
+    }
+
+    /**
+     * Records the names, promotions and rewrites of one path instead of making
+     * them, so that paths can be gathered concurrently. Names handed out are
+     * placeholders resolved by {@link #commit()}, and promoted schemas are $ref
+     * schemas filled in then.
+     */
+    private class PathRecording extends Promotions {
+        private static final char NAME_MARK = '\0';
+
+        final Set<Object> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+        boolean revisited = false; // an object was reached twice within the path
+        private final List<Runnable> steps = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private int nameCount = 0;
+
+        PathRecording() {
+            super(new IdentityHashMap<>());
+        }
+
+        @Override
+        void visit(Object target) {
+            revisited |= !owned.add(target);
+        }
+
+        @Override
+        String name(String title, String modelName) {
+            steps.add(() -> names.add(resolveModelName(title, expand(modelName))));
+            return NAME_MARK + String.valueOf(nameCount++) + NAME_MARK;
+        }
+
+        @Override
+        Schema promote(String name, Schema schema) {
+            Schema refSchema = new Schema();
+            steps.add(() -> {
+                Schema made = makeSchemaInComponents(expand(name), schema);
+                refSchema.set$ref(made.get$ref());
+                refSchema.setExtensions(made.getExtensions());
+            });
+            return refSchema;
+        }
+
+        @Override
+        void apply(Runnable rewrite) {
+            steps.add(rewrite);
+        }
+
+        /**
+         * Replace the name placeholder a model name starts with, if any, by the
+         * name it stands for
+         */
+        private String expand(String modelName) {
+            if (modelName == null || modelName.isEmpty() || modelName.charAt(0) != NAME_MARK) {
+                return modelName;
+            }
+            int end = modelName.indexOf(NAME_MARK, 1);
+            return names.get(Integer.parseInt(modelName.substring(1, end))) + modelName.substring(end + 1);
+        }
+
+        void commit() {
+            for (Runnable step : steps) {
+                step.run();
             }
         }
     }
@@ -183,9 +387,14 @@ public class InlineModelFlattener {
      * enum, oneOf, allOf, anyOf, etc.
      *
      * @param schema target schema
+     * @param cache  isModelNeeded results evaluated so far
      */
-    private boolean isModelNeeded(Schema schema) {
-        return isModelNeeded(schema, new HashSet<>());
+    private boolean isModelNeeded(Schema schema, Map<Schema, Boolean> cache) {
+        Boolean cached = cache.get(schema);
+        if (cached != null) {
+            return cached;
+        }
+        return isModelNeeded(schema, Collections.newSetFromMap(new IdentityHashMap<>()), cache);
     }
 
     /**
@@ -194,17 +403,31 @@ public class InlineModelFlattener {
      * <p>
      * Return true if a model should be generated e.g. object with properties,
      * enum, oneOf, allOf, anyOf, etc.
+     * <p>
+     * Results are cached for the rest of the flatten run. A schema reached again
+     * while it is still being evaluated is a circular reference and counts as a
+     * model; since allOf only needs one model item, every schema on such a cycle
+     * gets the same answer whichever one is evaluated first.
      *
      * @param schema         target schema
-     * @param visitedSchemas Visited schemas
+     * @param visitedSchemas schemas currently being evaluated
+     * @param cache          isModelNeeded results evaluated so far
      */
-    private boolean isModelNeeded(Schema schema, Set<Schema> visitedSchemas) {
-        if (visitedSchemas.contains(schema)) { // circular reference
+    private boolean isModelNeeded(Schema schema, Set<Schema> visitedSchemas, Map<Schema, Boolean> cache) {
+        Boolean cached = cache.get(schema);
+        if (cached != null) {
+            return cached;
+        }
+        if (!visitedSchemas.add(schema)) { // circular reference
             return true;
-        } else {
-            visitedSchemas.add(schema);
         }
 
+        boolean needed = computeModelNeeded(schema, visitedSchemas, cache);
+        cache.put(schema, needed);
+        return needed;
+    }
+
+    private boolean computeModelNeeded(Schema schema, Set<Schema> visitedSchemas, Map<Schema, Boolean> cache) {
         if (resolveInlineEnums && schema.getEnum() != null && schema.getEnum().size() > 0) {
             return true;
         }
@@ -219,7 +442,7 @@ public class InlineModelFlattener {
             if (schema.getAllOf() != null && !schema.getAllOf().isEmpty()) {
                 // check to ensure at least one of the allOf item is model
                 for (Object inner : schema.getAllOf()) {
-                    if (isModelNeeded(ModelUtils.getReferencedSchema(openAPI, (Schema) inner))) {
+                    if (isModelNeeded(ModelUtils.getReferencedSchema(openAPI, (Schema) inner), visitedSchemas, cache)) {
                         return true;
                     }
                 }
@@ -244,12 +467,13 @@ public class InlineModelFlattener {
      *
      * @param schema      target schema
      * @param modelPrefix model name (usually the prefix of the inline model name)
+     * @param promotions  where names are taken and schemas promoted
      */
-    private void gatherInlineModels(Schema schema, String modelPrefix) {
+    private void gatherInlineModels(Schema schema, String modelPrefix, Promotions promotions) {
         if (schema.get$ref() != null) {
             // if ref already, no inline schemas should be present but check for
             // any to catch OpenAPI violations
-            if (isModelNeeded(schema) || "object".equals(schema.getType()) ||
+            if (promotions.isModelNeeded(schema) || "object".equals(schema.getType()) ||
                     schema.getProperties() != null || schema.getAdditionalProperties() != null ||
                     ModelUtils.isComposedSchema(schema)) {
                 LOGGER.error("Illegal schema found with $ref combined with other properties," +
@@ -257,6 +481,7 @@ public class InlineModelFlattener {
             }
             return;
         }
+        promotions.visit(schema);
         // Check object models / any type models / composed models for properties,
         // if the schema has a type defined that is not "object" it should not define
         // any properties
@@ -280,12 +505,12 @@ public class InlineModelFlattener {
                     continue;
                 }
 
-                String schemaName = resolveModelName(prop.getTitle(), modelPrefix + "_" + propName);
+                String schemaName = promotions.name(prop.getTitle(), modelPrefix + "_" + propName);
                 // Recurse to create $refs for inner models
-                gatherInlineModels(prop, schemaName);
-                if (isModelNeeded(prop)) {
+                gatherInlineModels(prop, schemaName, promotions);
+                if (promotions.isModelNeeded(prop)) {
                     // If this schema should be split into its own model, do so
-                    Schema refSchema = this.makeSchemaInComponents(schemaName, prop);
+                    Schema refSchema = promotions.promote(schemaName, prop);
                     if (!props.containsKey(propName)) {
                         props.put(propName, refSchema);
                         queue.offer(new AbstractMap.SimpleEntry<>(propName, refSchema));
@@ -312,14 +537,14 @@ public class InlineModelFlattener {
                 if (schema.getAdditionalProperties() instanceof Schema) {
                     Schema inner = (Schema) schema.getAdditionalProperties();
                     if (inner != null) {
-                        String schemaName = resolveModelName(inner.getTitle(),
+                        String schemaName = promotions.name(inner.getTitle(),
                                 modelPrefix + this.inlineSchemaOptions.get("MAP_ITEM_SUFFIX"));
                         // Recurse to create $refs for inner models
-                        gatherInlineModels(inner, schemaName);
-                        if (isModelNeeded(inner)) {
+                        gatherInlineModels(inner, schemaName, promotions);
+                        if (promotions.isModelNeeded(inner)) {
                             // If this schema should be split into its own model, do so
-                            Schema refSchema = this.makeSchemaInComponents(schemaName, inner);
-                            schema.setAdditionalProperties(refSchema);
+                            Schema refSchema = promotions.promote(schemaName, inner);
+                            promotions.apply(() -> schema.setAdditionalProperties(refSchema));
                         }
                     }
                 }
@@ -348,15 +573,16 @@ public class InlineModelFlattener {
                 LOGGER.debug("prefixItems in array schema is not supported at the moment: {}", schema.toString());
                 return;
             }
-            String schemaName = resolveModelName(items.getTitle(),
+            String schemaName = promotions.name(items.getTitle(),
                     modelPrefix + this.inlineSchemaOptions.get("ARRAY_ITEM_SUFFIX"));
 
             // Recurse to create $refs for inner models
-            gatherInlineModels(items, schemaName);
+            gatherInlineModels(items, schemaName, promotions);
 
-            if (isModelNeeded(items)) {
+            if (promotions.isModelNeeded(items)) {
                 // If this schema should be split into its own model, do so
-                schema.setItems(this.makeSchemaInComponents(schemaName, items));
+                Schema refSchema = promotions.promote(schemaName, items);
+                promotions.apply(() -> schema.setItems(refSchema));
             }
         }
         // Check allOf, anyOf, oneOf for inline models
@@ -368,12 +594,12 @@ public class InlineModelFlattener {
                     if (inner == null) {
                         continue;
                     }
-                    String schemaName = resolveModelName(((Schema) inner).getTitle(), modelPrefix + "_allOf");
+                    String schemaName = promotions.name(((Schema) inner).getTitle(), modelPrefix + "_allOf");
                     // Recurse to create $refs for inner models
-                    gatherInlineModels((Schema) inner, schemaName);
-                    if (isModelNeeded((Schema) inner)) {
+                    gatherInlineModels((Schema) inner, schemaName, promotions);
+                    if (promotions.isModelNeeded((Schema) inner)) {
                         if (Boolean.TRUE.equals(this.refactorAllOfInlineSchemas)) {
-                            newAllOf.add(this.makeSchemaInComponents(schemaName, (Schema) inner)); // replace with ref
+                            newAllOf.add(promotions.promote(schemaName, (Schema) inner)); // replace with ref
                             atLeastOneModel = true;
                         } else { // do not refactor allOf inline schemas
                             newAllOf.add((Schema) inner);
@@ -384,7 +610,7 @@ public class InlineModelFlattener {
                     }
                 }
                 if (atLeastOneModel) {
-                    schema.setAllOf(newAllOf);
+                    promotions.apply(() -> schema.setAllOf(newAllOf));
                 } else {
                     // allOf is just one or more types only so do not generate the inline allOf
                     // model
@@ -405,16 +631,16 @@ public class InlineModelFlattener {
                     if (inner == null) {
                         continue;
                     }
-                    String schemaName = resolveModelName(((Schema) inner).getTitle(), modelPrefix + "_anyOf");
+                    String schemaName = promotions.name(((Schema) inner).getTitle(), modelPrefix + "_anyOf");
                     // Recurse to create $refs for inner models
-                    gatherInlineModels((Schema) inner, schemaName);
-                    if (isModelNeeded((Schema) inner)) {
-                        newAnyOf.add(this.makeSchemaInComponents(schemaName, (Schema) inner)); // replace with ref
+                    gatherInlineModels((Schema) inner, schemaName, promotions);
+                    if (promotions.isModelNeeded((Schema) inner)) {
+                        newAnyOf.add(promotions.promote(schemaName, (Schema) inner)); // replace with ref
                     } else {
                         newAnyOf.add((Schema) inner);
                     }
                 }
-                schema.setAnyOf(newAnyOf);
+                promotions.apply(() -> schema.setAnyOf(newAnyOf));
             }
             if (schema.getOneOf() != null) {
                 List<Schema> newOneOf = new ArrayList<Schema>();
@@ -422,28 +648,28 @@ public class InlineModelFlattener {
                     if (inner == null) {
                         continue;
                     }
-                    String schemaName = resolveModelName(((Schema) inner).getTitle(), modelPrefix + "_oneOf");
+                    String schemaName = promotions.name(((Schema) inner).getTitle(), modelPrefix + "_oneOf");
                     // Recurse to create $refs for inner models
-                    gatherInlineModels((Schema) inner, schemaName);
-                    if (isModelNeeded((Schema) inner)) {
-                        newOneOf.add(this.makeSchemaInComponents(schemaName, (Schema) inner)); // replace with ref
+                    gatherInlineModels((Schema) inner, schemaName, promotions);
+                    if (promotions.isModelNeeded((Schema) inner)) {
+                        newOneOf.add(promotions.promote(schemaName, (Schema) inner)); // replace with ref
                     } else {
                         newOneOf.add((Schema) inner);
                     }
                 }
-                schema.setOneOf(newOneOf);
+                promotions.apply(() -> schema.setOneOf(newOneOf));
             }
         }
         // Check not schema
         if (schema.getNot() != null) {
             Schema not = schema.getNot();
             if (not != null) {
-                String schemaName = resolveModelName(schema.getTitle(), modelPrefix + "_not");
+                String schemaName = promotions.name(schema.getTitle(), modelPrefix + "_not");
                 // Recurse to create $refs for inner models
-                gatherInlineModels(not, schemaName);
-                if (isModelNeeded(not)) {
-                    Schema refSchema = this.makeSchemaInComponents(schemaName, not);
-                    schema.setNot(refSchema);
+                gatherInlineModels(not, schemaName, promotions);
+                if (promotions.isModelNeeded(not)) {
+                    Schema refSchema = promotions.promote(schemaName, not);
+                    promotions.apply(() -> schema.setNot(refSchema));
                 }
             }
         }
@@ -453,9 +679,10 @@ public class InlineModelFlattener {
      * Flatten inline models in content
      *
      * @param content target content
-     * @param name    backup name if no title is found
+     * @param name       backup name if no title is found
+     * @param promotions where names are taken and schemas promoted
      */
-    private void flattenContent(Content content, String name) {
+    private void flattenContent(Content content, String name, Promotions promotions) {
         if (content == null || content.isEmpty()) {
             return;
         }
@@ -469,13 +696,15 @@ public class InlineModelFlattener {
             if (schema == null) {
                 continue;
             }
-            String schemaName = resolveModelName(schema.getTitle(), name); // name example: testPost_request
+            promotions.visit(mediaType);
+            String schemaName = promotions.name(schema.getTitle(), name); // name example: testPost_request
             // Recursively gather/make inline models within this schema if any
-            gatherInlineModels(schema, schemaName);
-            if (isModelNeeded(schema)) {
+            gatherInlineModels(schema, schemaName, promotions);
+            if (promotions.isModelNeeded(schema)) {
                 // If this schema should be split into its own model, do so
                 // Schema refSchema = this.makeSchema(schemaName, schema);
-                mediaType.setSchema(this.makeSchemaInComponents(schemaName, schema));
+                Schema refSchema = promotions.promote(schemaName, schema);
+                promotions.apply(() -> mediaType.setSchema(refSchema));
             }
         }
     }
@@ -483,10 +712,11 @@ public class InlineModelFlattener {
     /**
      * Flatten inline models in RequestBody
      *
-     * @param modelName inline model name prefix
-     * @param operation target operation
+     * @param modelName  inline model name prefix
+     * @param operation  target operation
+     * @param promotions where names are taken and schemas promoted
      */
-    private void flattenRequestBody(String modelName, Operation operation) {
+    private void flattenRequestBody(String modelName, Operation operation, Promotions promotions) {
         RequestBody requestBody = operation.getRequestBody();
         if (requestBody == null) {
             return;
@@ -503,7 +733,7 @@ public class InlineModelFlattener {
         }
 
         flattenContent(requestBody.getContent(),
-                (operation.getOperationId() == null ? modelName : operation.getOperationId()) + "_request");
+                (operation.getOperationId() == null ? modelName : operation.getOperationId()) + "_request", promotions);
     }
 
     /**
@@ -512,17 +742,19 @@ public class InlineModelFlattener {
      * @param modelName   model name
      * @param parameters  list of parameters
      * @param operationId operation Id (optional)
+     * @param promotions  where names are taken and schemas promoted
      */
-    private void flattenParameters(String modelName, List<Parameter> parameters, String operationId) {
+    private void flattenParameters(String modelName, List<Parameter> parameters, String operationId,
+            Promotions promotions) {
         // List<Parameter> parameters = operation.getParameters();
         if (parameters == null) {
             return;
         }
 
-        for (Parameter parameter : parameters) {
-            if (StringUtils.isNotEmpty(parameter.get$ref())) {
-                parameter = ModelUtils.getReferencedParameter(openAPI, parameter);
-            }
+        for (Parameter parameterOrRef : parameters) {
+            Parameter parameter = StringUtils.isNotEmpty(parameterOrRef.get$ref())
+                    ? ModelUtils.getReferencedParameter(openAPI, parameterOrRef)
+                    : parameterOrRef;
 
             if (parameter.getSchema() == null) {
                 continue;
@@ -533,13 +765,15 @@ public class InlineModelFlattener {
             if (parameterSchema == null) {
                 continue;
             }
-            String schemaName = resolveModelName(parameterSchema.getTitle(),
+            promotions.visit(parameter);
+            String schemaName = promotions.name(parameterSchema.getTitle(),
                     (operationId == null ? modelName : operationId) + "_" + parameter.getName() + "_parameter");
             // Recursively gather/make inline models within this schema if any
-            gatherInlineModels(parameterSchema, schemaName);
-            if (isModelNeeded(parameterSchema)) {
+            gatherInlineModels(parameterSchema, schemaName, promotions);
+            if (promotions.isModelNeeded(parameterSchema)) {
                 // If this schema should be split into its own model, do so
-                parameter.setSchema(this.makeSchemaInComponents(schemaName, parameterSchema));
+                Schema refSchema = promotions.promote(schemaName, parameterSchema);
+                promotions.apply(() -> parameter.setSchema(refSchema));
             }
         }
     }
@@ -547,10 +781,11 @@ public class InlineModelFlattener {
     /**
      * Flatten inline models in ApiResponses
      *
-     * @param modelName model name prefix
-     * @param operation target operation
+     * @param modelName  model name prefix
+     * @param operation  target operation
+     * @param promotions where names are taken and schemas promoted
      */
-    private void flattenResponses(String modelName, Operation operation) {
+    private void flattenResponses(String modelName, Operation operation, Promotions promotions) {
         ApiResponses responses = operation.getResponses();
         if (responses == null) {
             return;
@@ -562,7 +797,7 @@ public class InlineModelFlattener {
 
             flattenContent(response.getContent(),
                     (operation.getOperationId() == null ? modelName : operation.getOperationId()) + "_" + key
-                            + "_response");
+                            + "_response", promotions);
         }
     }
 
@@ -628,7 +863,7 @@ public class InlineModelFlattener {
                 String innerModelName = resolveModelName(component.getTitle(), key);
                 Schema innerModel = modelFromProperty(openAPI, component, innerModelName);
                 // Recurse to create $refs for inner models
-                gatherInlineModels(innerModel, innerModelName);
+                gatherInlineModels(innerModel, innerModelName, inPlace);
                 String existing = matchGenerated(innerModel);
                 if (existing == null) {
                     innerModelName = addSchemas(innerModelName, innerModel);
@@ -660,9 +895,9 @@ public class InlineModelFlattener {
                 continue;
             }
             if (ModelUtils.isAnyOf(model)) { // contains anyOf only
-                gatherInlineModels(model, modelName);
+                gatherInlineModels(model, modelName, inPlace);
             } else if (ModelUtils.isOneOf(model)) { // contains oneOf only
-                gatherInlineModels(model, modelName);
+                gatherInlineModels(model, modelName, inPlace);
             } else if (ModelUtils.isComposedSchema(model)) {
                 // inline child schemas
                 flattenComposedChildren(modelName + "_allOf", model.getAllOf(),
@@ -670,7 +905,7 @@ public class InlineModelFlattener {
                 flattenComposedChildren(modelName + "_anyOf", model.getAnyOf(), false);
                 flattenComposedChildren(modelName + "_oneOf", model.getOneOf(), false);
             } else {
-                gatherInlineModels(model, modelName);
+                gatherInlineModels(model, modelName, inPlace);
             }
         }
     }
@@ -710,7 +945,7 @@ public class InlineModelFlattener {
      *         {@code key}
      */
     private String resolveModelName(String title, String modelName) {
-        if (title == null || sanitizeName(title).replace("_", "").isEmpty()) {
+        if (title == null || Names.isBlank(sanitizeName(title))) {
             if (modelName == null) {
                 return uniqueName("inline_object");
             }
@@ -725,58 +960,50 @@ public class InlineModelFlattener {
             return null;
         }
 
-        try {
-            String json = structureMapper.writeValueAsString(model);
-            if (generatedSignature.containsKey(json)) {
-                return generatedSignature.get(json);
-            }
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-        }
-
-        return null;
+        String existing = generatedSignature.find(model);
+        report.increment(existing != null ? "signatureReuseHits" : "signatureReuseMisses");
+        return existing;
     }
 
     private void addGenerated(String name, Schema model) {
-        try {
-            String json = structureMapper.writeValueAsString(model);
-            generatedSignature.put(json, name);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-        }
+        generatedSignature.add(name, model);
     }
 
     /**
      * Sanitizes the input so that it's valid name for a class or interface
      * <p>
-     * e.g. 12.schema.User name => _2_schema_User_name
+     * e.g. 12.schema.User name => _12_schema_User_name
      *
      * @param name name to be processed to make sure it's sanitized
      */
     private String sanitizeName(final String name) {
-        return name
-                .replaceAll("^[0-9]", "_$0") // e.g. 12object => _12object
-                .replaceAll("[^A-Za-z0-9]", "_"); // e.g. io.schema.User name => io_schema_User_name
+        return Names.sanitize(name);
     }
 
     /**
      * Generate a unique name for the input
+     * <p>
+     * Names are never released during a flatten run, so the first free suffix
+     * for a given name can only move forward. Probing resumes from where the
+     * previous call for the same name stopped, which yields the same names as
+     * probing from {@code name_1} each time without rescanning taken suffixes.
      *
      * @param name name to be processed to make sure it's unique
      */
     private String uniqueName(final String name) {
-        if (openAPI.getComponents().getSchemas() == null) { // no schema has been created
+        Map<String, Schema> schemas = openAPI.getComponents().getSchemas();
+        if (schemas == null) { // no schema has been created
             return name;
         }
 
-        String uniqueName = name;
-        int count = 0;
-        while (true) {
-            if (!openAPI.getComponents().getSchemas().containsKey(uniqueName) && !uniqueNames.contains(uniqueName)) {
-                return uniqueName;
-            }
+        int count = nextNameSuffix.getOrDefault(name, 0);
+        String uniqueName = count == 0 ? name : name + "_" + count;
+        while (schemas.containsKey(uniqueName) || uniqueNames.contains(uniqueName)) {
             uniqueName = name + "_" + ++count;
+            report.increment("nameCollisionProbes");
         }
+        nextNameSuffix.put(name, count);
+        return uniqueName;
     }
 
     private void flattenProperties(OpenAPI openAPI, Map<String, Schema> properties, String path) {
@@ -826,7 +1053,7 @@ public class InlineModelFlattener {
                     }
                 } else if (ModelUtils.isComposedSchema(inner)) {
                     String innerModelName = resolveModelName(inner.getTitle(), path + "_" + key);
-                    gatherInlineModels(inner, innerModelName);
+                    gatherInlineModels(inner, innerModelName, inPlace);
                     innerModelName = addSchemas(innerModelName, inner);
                     Schema schema = new Schema().$ref(innerModelName);
                     schema.setRequired(inner.getRequired());
@@ -856,7 +1083,7 @@ public class InlineModelFlattener {
                     }
                 } else if (ModelUtils.isComposedSchema(inner)) {
                     String innerModelName = resolveModelName(inner.getTitle(), path + "_" + key);
-                    gatherInlineModels(inner, innerModelName);
+                    gatherInlineModels(inner, innerModelName, inPlace);
                     innerModelName = addSchemas(innerModelName, inner);
                     Schema schema = new Schema().$ref(innerModelName);
                     schema.setRequired(inner.getRequired());
@@ -875,7 +1102,7 @@ public class InlineModelFlattener {
                             property);
                 } else {
                     String propertyModelName = resolveModelName(property.getTitle(), path + "_" + key);
-                    gatherInlineModels(property, propertyModelName);
+                    gatherInlineModels(property, propertyModelName, inPlace);
                     propertyModelName = addSchemas(propertyModelName, property);
                     Schema schema = new Schema().$ref(propertyModelName);
                     schema.setRequired(property.getRequired());
@@ -1027,10 +1254,15 @@ public class InlineModelFlattener {
 
         addGenerated(name, schema);
         openAPI.getComponents().addSchemas(name, schema);
+        report.increment("inlineModelsCreated");
         if (!name.equals(schema.getTitle()) && !inlineSchemaNameMappingValues.contains(name)) {
-            LOGGER.info(
-                    "Inline schema created as {}. To have complete control of the model name, set the `title` field or use the modelNameMapping option (e.g. --model-name-mappings {}=NewModel,ModelA=NewModelA in CLI) or inlineSchemaNameMapping option (--inline-schema-name-mappings {}=NewModel,ModelA=NewModelA in CLI).",
-                    name, name, name);
+            if (summarizeInlineSchemaLogs) {
+                untitledSchemas.add(name);
+            } else {
+                LOGGER.info(
+                        "Inline schema created as {}. To have complete control of the model name, set the `title` field or use the modelNameMapping option (e.g. --model-name-mappings {}=NewModel,ModelA=NewModelA in CLI) or inlineSchemaNameMapping option (--inline-schema-name-mappings {}=NewModel,ModelA=NewModelA in CLI).",
+                        name, name, name);
+            }
         }
 
         uniqueNames.add(name);
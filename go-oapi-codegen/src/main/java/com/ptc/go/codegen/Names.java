@@ -0,0 +1,191 @@
+package com.ptc.go.codegen;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Name conversions shared by the flattener and the generator.
+ * <p>
+ * Both conversions are pure functions of their input, and the same inputs come
+ * up over and over in a large spec (enum values shared by many models, titles
+ * and path prefixes of inline schemas), so results are kept in bounded caches
+ * and the same String instance is returned for repeated inputs.
+ */
+final class Names {
+    // cleared when full; a spec has far fewer distinct names than this
+    private static final int MAX_CACHED = 1 << 16;
+
+    private static final Map<String, String> sanitized = new ConcurrentHashMap<>();
+    private static final Map<String, String> enumNames = new ConcurrentHashMap<>();
+
+    private Names() {
+    }
+
+    /**
+     * Sanitizes the input so that it's valid name for a class or interface
+     * <p>
+     * e.g. 12.schema.User name => _12_schema_User_name
+     *
+     * @param name name to be processed to make sure it's sanitized
+     * @return the name with a leading digit prefixed by an underscore and every
+     *         other character than A-Z, a-z and 0-9 replaced with an underscore
+     */
+    static String sanitize(String name) {
+        return cached(sanitized, name, Names::computeSanitized);
+    }
+
+    /**
+     * Converts an enum value to the PascalCase name of its Go const
+     * <p>
+     * e.g. FEATURE_STATE_OK => FeatureStateOk, feature state => FeatureState
+     *
+     * @param enumValue enum value, with words separated by underscores or spaces
+     * @return the capitalized words of the lowercased value, joined together
+     */
+    static String enumName(String enumValue) {
+        return cached(enumNames, enumValue, Names::computeEnumName);
+    }
+
+    /**
+     * @return whether the sanitized name is made of underscores only
+     */
+    static boolean isBlank(String sanitizedName) {
+        for (int i = 0; i < sanitizedName.length(); i++) {
+            if (sanitizedName.charAt(i) != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the Go interpreted string literal of s, e.g. a"b => "a\"b"
+     */
+    static String goString(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\x%02x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * @return the JSON string of s as encoding/json writes it, which by default
+     *         also escapes &lt;, &gt; and &amp; for HTML
+     */
+    static String jsonString(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                case '\\':
+                    sb.append('\\').append(c);
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == '<' || c == '>' || c == '&' || c == '\u2028' || c == '\u2029') {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String cached(Map<String, String> cache, String input, Function<String, String> compute) {
+        String result = cache.get(input);
+        if (result == null) {
+            if (cache.size() >= MAX_CACHED) {
+                cache.clear();
+            }
+            result = compute.apply(input);
+            cache.put(input, result);
+        }
+        return result;
+    }
+
+    static String computeSanitized(String name) {
+        StringBuilder result = null;
+        int length = name.length();
+        if (length > 0 && isDigit(name.charAt(0))) {
+            // e.g. 12object => _12object
+            result = new StringBuilder(length + 1).append('_');
+        }
+
+        for (int i = 0; i < length;) {
+            int c = name.codePointAt(i);
+            int next = i + Character.charCount(c);
+            boolean valid = isDigit(c) || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+            if (!valid && result == null) {
+                result = new StringBuilder(length).append(name, 0, i);
+            }
+            if (result != null) {
+                // e.g. io.schema.User name => io_schema_User_name
+                result.append(valid ? (char) c : '_');
+            }
+            i = next;
+        }
+
+        return result == null ? name : result.toString();
+    }
+
+    static String computeEnumName(String enumValue) {
+        StringBuilder result = new StringBuilder(enumValue.length());
+        boolean wordStart = true;
+        for (int i = 0; i < enumValue.length(); i++) {
+            char c = enumValue.charAt(i);
+            if (c >= 0x80) {
+                return computeEnumNameUnicode(enumValue);
+            }
+
+            if (c == '_' || c == ' ') {
+                wordStart = true;
+            } else {
+                if (wordStart && c >= 'a' && c <= 'z') {
+                    c -= 'a' - 'A';
+                } else if (!wordStart && c >= 'A' && c <= 'Z') {
+                    c += 'a' - 'A';
+                }
+                result.append(c);
+                wordStart = false;
+            }
+        }
+        return result.toString();
+    }
+
+    // locale- and code point-aware case conversion for non-ASCII values
+    private static String computeEnumNameUnicode(String enumValue) {
+        String name = StringUtils.replace(enumValue, "_", " ");
+        name = StringUtils.lowerCase(name);
+
+        StringBuilder result = new StringBuilder(name.length());
+        for (String part : name.split(" ")) {
+            result.append(StringUtils.capitalize(part));
+        }
+        return result.toString();
+    }
+
+    private static boolean isDigit(int c) {
+        return c >= '0' && c <= '9';
+    }
+}
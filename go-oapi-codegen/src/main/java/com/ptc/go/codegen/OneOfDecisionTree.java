@@ -0,0 +1,331 @@
+package com.ptc.go.codegen;
+
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.CodegenProperty;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Decides from the JSON kind of a payload and the keys of an object which
+ * schemas of a oneOf without a discriminator it can be decoded into, so that
+ * only the schemas that cannot be told apart are tried one by one.
+ * <p>
+ * Primitives, arrays and objects are told apart by the kind of the payload.
+ * Object schemas with a fixed set of properties are told apart by a decision
+ * tree on the presence of keys: a present key rules out the schemas that do
+ * not declare it and reject unknown keys, an absent key the schemas that
+ * require it. Whether a schema rejects unknown keys depends on how the oneOf
+ * is decoded: the strict decoder rejects them for every schema, the lookup
+ * mode's json.Unmarshal only for schemas with additionalProperties: false.
+ * Schemas that
+ * accept any key, such as maps, and types the generator cannot reason about are
+ * kept for every payload they could decode.
+ * <p>
+ * The result is rendered by model_oneof_decision.mustache. Candidates and keys
+ * are bits of a Go uint64, so oneOfs with more than 64 schemas are not handled.
+ */
+class OneOfDecisionTree {
+    static final String EXTENSION = "x-go-oneof-decision";
+
+    static final int MAX_BITS = 64;
+    // cuts off the tree of a oneOf of many similar objects; the rest is tried one by one
+    static final int MAX_LEAVES = 64;
+
+    /**
+     * Go jsonKind constants in client.mustache
+     */
+    enum Kind {
+        OBJECT("jsonObject"), ARRAY("jsonArray"), STRING("jsonString"), NUMBER("jsonNumber"), BOOL("jsonBool");
+
+        final String constant;
+
+        Kind(String constant) {
+            this.constant = constant;
+        }
+    }
+
+    private static final class Candidate {
+        final String type;
+        final long bit;
+        final Set<Kind> kinds;
+        // declared and required properties of an object with a fixed set of properties, or null
+        final Set<String> properties;
+        final Set<String> required;
+        // whether a key it does not declare rules it out
+        final boolean closed;
+
+        Candidate(String type, long bit, Set<Kind> kinds, Set<String> properties, Set<String> required,
+                  boolean closed) {
+            this.type = type;
+            this.bit = bit;
+            this.kinds = kinds;
+            this.properties = properties;
+            this.required = required;
+            this.closed = closed;
+        }
+
+        boolean accepts(String key) {
+            return !closed || properties.contains(key);
+        }
+    }
+
+    /**
+     * A leaf of the tree: the keys present on the path to it and the candidates
+     * left. The keys absent on the path are not checked, since the leaves are
+     * tried in order and the leaves where those keys are present come first.
+     */
+    private static final class Leaf {
+        final long present;
+        final long candidates;
+
+        Leaf(long present, long candidates) {
+            this.present = present;
+            this.candidates = candidates;
+        }
+    }
+
+    private final List<Candidate> candidates = new ArrayList<>();
+    private final Map<String, Long> keys = new LinkedHashMap<>();
+    private final List<Leaf> leaves = new ArrayList<>();
+
+    private OneOfDecisionTree() {
+    }
+
+    /**
+     * @param model  oneOf model without a discriminator
+     * @param models all models by class name
+     * @param closed whether a schema of the oneOf fails to decode objects with
+     *               keys it does not declare
+     * @return the {@link #EXTENSION} vendor extension of the model, or null when
+     *         it has too many schemas
+     */
+    static Map<String, Object> of(CodegenModel model, Map<String, CodegenModel> models,
+                                  Predicate<CodegenModel> closed) {
+        if (model.oneOf.isEmpty() || model.oneOf.size() > MAX_BITS) {
+            return null;
+        }
+
+        OneOfDecisionTree tree = new OneOfDecisionTree();
+        for (String type : model.oneOf) {
+            tree.candidates.add(candidate(type, 1L << tree.candidates.size(), models, closed));
+        }
+        return tree.toExtension();
+    }
+
+    private Map<String, Object> toExtension() {
+        long all = 0;
+        List<Map<String, Object>> candidateList = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            all |= candidate.bit;
+            Map<String, Object> c = new LinkedHashMap<>();
+            c.put("type", candidate.type);
+            c.put("mask", mask(candidate.bit));
+            candidateList.add(c);
+        }
+
+        List<Map<String, Object>> kinds = new ArrayList<>();
+        for (Kind kind : Kind.values()) {
+            long mask = 0;
+            List<Candidate> fixedObjects = new ArrayList<>();
+            for (Candidate candidate : candidates) {
+                if (!candidate.kinds.contains(kind)) {
+                    continue;
+                }
+                mask |= candidate.bit;
+                if (kind == Kind.OBJECT && candidate.properties != null) {
+                    fixedObjects.add(candidate);
+                }
+            }
+            if (mask == 0) {
+                continue;
+            }
+
+            Map<String, Object> k = new LinkedHashMap<>();
+            k.put("kind", kind.constant);
+            k.put("mask", mask(mask));
+            if (fixedObjects.size() > 1) {
+                split(fixedObjects, mask & ~bits(fixedObjects), 0, new HashSet<>());
+            }
+            k.put("leaves", leavesExtension());
+            leaves.clear();
+            kinds.add(k);
+        }
+        // every type decodes null
+        Map<String, Object> nullKind = new LinkedHashMap<>();
+        nullKind.put("kind", "jsonNull");
+        nullKind.put("mask", mask(all));
+        nullKind.put("leaves", Collections.emptyList());
+        kinds.add(nullKind);
+
+        List<String> keyLiterals = new ArrayList<>();
+        for (String key : keys.keySet()) {
+            keyLiterals.add(Names.goString(key));
+        }
+
+        Map<String, Object> extension = new LinkedHashMap<>();
+        extension.put("candidates", candidateList);
+        extension.put("kinds", kinds);
+        // with the braces of the Go slice literal, which can't follow [] in the template
+        extension.put("keys", "{" + String.join(", ", keyLiterals) + "}");
+        extension.put("hasKeys", !keyLiterals.isEmpty());
+        return extension;
+    }
+
+    /**
+     * @return the cases of a Go switch on the leaves, where consecutive leaves with
+     *         the same candidates share a case, or none for a single leaf
+     */
+    private List<Map<String, Object>> leavesExtension() {
+        List<Map<String, Object>> cases = new ArrayList<>();
+        if (leaves.size() < 2) {
+            return cases;
+        }
+
+        List<String> conditions = null;
+        long previous = 0;
+        for (Leaf leaf : leaves) {
+            if (conditions == null || leaf.candidates != previous) {
+                conditions = new ArrayList<>();
+                Map<String, Object> c = new LinkedHashMap<>();
+                c.put("conditions", conditions);
+                c.put("mask", mask(leaf.candidates));
+                cases.add(c);
+                previous = leaf.candidates;
+            }
+            conditions.add(mask(leaf.present));
+        }
+        return cases;
+    }
+
+    /**
+     * Split the objects on the key that best tells them apart until each leaf has
+     * one object or no key tells the remaining ones apart
+     *
+     * @param objects objects with a fixed set of properties matching the path so far
+     * @param others  mask of the objects that accept any key
+     * @param present keys present on the path here
+     * @param used    keys already on the path
+     */
+    private void split(List<Candidate> objects, long others, long present, Set<String> used) {
+        String best = null;
+        int bestMax = objects.size();
+        int bestMin = objects.size();
+        if (objects.size() > 1 && leaves.size() < MAX_LEAVES - 1) {
+            for (Candidate object : objects) {
+                for (String key : object.properties) {
+                    if (used.contains(key) || (!keys.containsKey(key) && keys.size() >= MAX_BITS)) {
+                        continue;
+                    }
+                    int accepting = 0;
+                    int notRequiring = 0;
+                    for (Candidate other : objects) {
+                        accepting += other.accepts(key) ? 1 : 0;
+                        notRequiring += other.required.contains(key) ? 0 : 1;
+                    }
+                    int max = Math.max(accepting, notRequiring);
+                    int min = Math.min(accepting, notRequiring);
+                    // one side must rule out an object and neither all of them, as a key all of them require would
+                    if (min > 0 && min < objects.size() && (max < bestMax || (max == bestMax && min < bestMin))) {
+                        best = key;
+                        bestMax = max;
+                        bestMin = min;
+                    }
+                }
+            }
+        }
+
+        if (best == null) {
+            leaves.add(new Leaf(present, bits(objects) | others));
+            return;
+        }
+
+        String key = best;
+        long bit = keys.computeIfAbsent(key, k -> 1L << keys.size());
+        Set<String> usedBelow = new HashSet<>(used);
+        usedBelow.add(key);
+
+        List<Candidate> accepting = new ArrayList<>();
+        List<Candidate> notRequiring = new ArrayList<>();
+        for (Candidate object : objects) {
+            if (object.accepts(key)) {
+                accepting.add(object);
+            }
+            if (!object.required.contains(key)) {
+                notRequiring.add(object);
+            }
+        }
+        split(accepting, others, present | bit, usedBelow);
+        split(notRequiring, others, present, usedBelow);
+    }
+
+    private static Candidate candidate(String type, long bit, Map<String, CodegenModel> models,
+                                       Predicate<CodegenModel> closed) {
+        CodegenModel model = models.get(type);
+        if (model == null) {
+            Kind kind = primitiveKind(type);
+            return new Candidate(type, bit, kind == null ? EnumSet.allOf(Kind.class) : EnumSet.of(kind), null, null, false);
+        }
+
+        if (model.isEnum) {
+            Kind kind = primitiveKind(model.dataType);
+            return new Candidate(type, bit, kind == null ? EnumSet.allOf(Kind.class) : EnumSet.of(kind), null, null, false);
+        } else if (model.isArray) {
+            return new Candidate(type, bit, EnumSet.of(Kind.ARRAY), null, null, false);
+        } else if (!model.oneOf.isEmpty() || !model.anyOf.isEmpty() || model.discriminator != null
+                || model.hasChildren) {
+            // decoded by its own rules, or by those of a subtype
+            return new Candidate(type, bit, EnumSet.allOf(Kind.class), null, null, false);
+        } else if (model.isMap || model.isFreeFormObject || model.isAdditionalPropertiesTrue) {
+            return new Candidate(type, bit, EnumSet.of(Kind.OBJECT), null, null, false);
+        }
+
+        Set<String> properties = new LinkedHashSet<>();
+        Set<String> required = new HashSet<>();
+        for (CodegenProperty property : model.allVars) {
+            properties.add(property.baseName);
+            if (property.required) {
+                required.add(property.baseName);
+            }
+        }
+        return new Candidate(type, bit, EnumSet.of(Kind.OBJECT), properties, required, closed.test(model));
+    }
+
+    /**
+     * @return the kind of JSON value a Go type decodes, or null when it is not
+     *         known
+     */
+    static Kind primitiveKind(String type) {
+        if (type.startsWith("[]")) {
+            return Kind.ARRAY;
+        } else if (type.startsWith("map[")) {
+            return Kind.OBJECT;
+        }
+        switch (type) {
+            case "string":
+                return Kind.STRING;
+            case "bool":
+                return Kind.BOOL;
+            case "int":
+            case "int32":
+            case "int64":
+            case "float32":
+            case "float64":
+                return Kind.NUMBER;
+            default:
+                return null;
+        }
+    }
+
+    private static long bits(List<Candidate> candidates) {
+        long bits = 0;
+        for (Candidate candidate : candidates) {
+            bits |= candidate.bit;
+        }
+        return bits;
+    }
+
+    private static String mask(long bits) {
+        return "0x" + Long.toHexString(bits);
+    }
+}
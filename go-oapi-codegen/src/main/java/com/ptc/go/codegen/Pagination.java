@@ -0,0 +1,85 @@
+package com.ptc.go.codegen;
+
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.CodegenOperation;
+import org.openapitools.codegen.CodegenParameter;
+import org.openapitools.codegen.CodegenProperty;
+
+import java.util.*;
+
+/**
+ * Finds the list operations whose response is a page of items with a link to
+ * the next page, for which api.mustache generates an iterator that fetches the
+ * following pages ahead of the caller.
+ * <p>
+ * A GET operation is paginated when its response is a model with an
+ * {@code items} array and a {@code next} string. The x-go-pagination vendor
+ * extension of an operation overrides the detection: false leaves the
+ * operation without an iterator, and an object such as
+ * {@code {"items": "elements", "next": "nextHref"}} names the properties of
+ * the page, for any method.
+ */
+final class Pagination {
+    static final String EXTENSION = "x-go-pagination";
+    static final String PAGER_EXTENSION = "x-go-pager";
+
+    // the field of the request type the iterator sets to the next link
+    private static final String NEXT_PAGE_FIELD = "nextPage";
+
+    private Pagination() {
+    }
+
+    /**
+     * Adds the {@link #PAGER_EXTENSION} vendor extension to a paginated
+     * operation, with the item type and the getters of the page model
+     *
+     * @param operation operation rendered by api.mustache
+     * @param models    all models by class name
+     * @return whether the operation is paginated
+     */
+    static boolean apply(CodegenOperation operation, Map<String, CodegenModel> models) {
+        Object extension = operation.vendorExtensions.get(EXTENSION);
+        if (Boolean.FALSE.equals(extension) || (extension == null && !"GET".equalsIgnoreCase(operation.httpMethod))) {
+            return false;
+        }
+        String items = "items";
+        String next = "next";
+        if (extension instanceof Map) {
+            Map<?, ?> names = (Map<?, ?>) extension;
+            items = Objects.toString(names.get("items"), items);
+            next = Objects.toString(names.get("next"), next);
+        }
+
+        CodegenModel page = operation.returnContainer == null ? models.get(operation.returnBaseType) : null;
+        if (page == null || page.isArray || page.isMap) {
+            return false;
+        }
+        for (CodegenParameter parameter : operation.allParams) {
+            if (NEXT_PAGE_FIELD.equals(parameter.paramName)) {
+                return false;
+            }
+        }
+        CodegenProperty itemsProperty = property(page, items);
+        CodegenProperty nextProperty = property(page, next);
+        if (itemsProperty == null || !itemsProperty.isArray || itemsProperty.items == null
+                || nextProperty == null || !nextProperty.isString) {
+            return false;
+        }
+
+        Map<String, Object> pager = new HashMap<>();
+        pager.put("itemType", itemsProperty.items.dataType);
+        pager.put("itemsGetter", "Get" + itemsProperty.name);
+        pager.put("nextGetter", "Get" + nextProperty.name);
+        operation.vendorExtensions.put(PAGER_EXTENSION, pager);
+        return true;
+    }
+
+    private static CodegenProperty property(CodegenModel model, String baseName) {
+        for (CodegenProperty property : model.allVars) {
+            if (baseName.equals(property.baseName)) {
+                return property;
+            }
+        }
+        return null;
+    }
+}
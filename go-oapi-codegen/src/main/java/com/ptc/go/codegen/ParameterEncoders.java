@@ -0,0 +1,266 @@
+package com.ptc.go.codegen;
+
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.CodegenOperation;
+import org.openapitools.codegen.CodegenParameter;
+import org.openapitools.codegen.CodegenProperty;
+
+import java.util.*;
+
+/**
+ * Writes the Go expressions that api.mustache uses to turn the path, query,
+ * header and form parameters of an operation into strings, in place of
+ * parameterToString, which goes through reflect and fmt for every value.
+ * <p>
+ * Strings, booleans, integers, floats, time.Time and enums of those are
+ * supported, and arrays of them as multi query parameters, as are arrays of
+ * strings in the other collection formats. The x-go-encoded vendor extension
+ * of a parameter is the expression of its value, and x-go-encoded-item that of
+ * an element of a multi array, named v. The parameters without either are
+ * left to parameterToString.
+ * <p>
+ * When all its path parameters, if any, are supported, the x-go-path vendor extension
+ * of the operation lists the Go expressions of the segments of its path, which
+ * are written into a strings.Builder instead of replacing the placeholders one
+ * by one.
+ */
+final class ParameterEncoders {
+    static final String ENCODED_EXTENSION = "x-go-encoded";
+    static final String ENCODED_ITEM_EXTENSION = "x-go-encoded-item";
+    static final String PATH_EXTENSION = "x-go-path";
+
+    // room left in the path for each parameter, the length of an Onshape id
+    private static final int PATH_PARAMETER_LENGTH = 24;
+
+    private static final Map<String, String> DELIMITERS = new HashMap<>();
+
+    static {
+        DELIMITERS.put("csv", ",");
+        DELIMITERS.put("ssv", " ");
+        DELIMITERS.put("tsv", "\t");
+        DELIMITERS.put("pipes", "|");
+    }
+
+    private ParameterEncoders() {
+    }
+
+    /**
+     * Adds the vendor extensions to the parameters of an operation, and to the
+     * operation when its path can be built from them
+     *
+     * @param operation operation rendered by api.mustache
+     * @param models    all models by class name, for the enums
+     * @return the number of parameters left to parameterToString
+     */
+    static int apply(CodegenOperation operation, Map<String, CodegenModel> models) {
+        int reflective = 0;
+        for (CodegenParameter parameter : operation.pathParams) {
+            reflective += encode(parameter, "r." + parameter.paramName, models);
+        }
+        for (List<CodegenParameter> parameters : Arrays.asList(operation.queryParams, operation.headerParams,
+                operation.formParams)) {
+            for (CodegenParameter parameter : parameters) {
+                if (!parameter.isFile) {
+                    reflective += encode(parameter, "*r." + parameter.paramName, models);
+                }
+            }
+        }
+        addPath(operation);
+        return reflective;
+    }
+
+    /**
+     * @return the Go imports the expressions of the operation use
+     */
+    static Set<String> imports(CodegenOperation operation) {
+        Set<String> imports = new TreeSet<>();
+        if (operation.vendorExtensions.containsKey(PATH_EXTENSION)) {
+            imports.add("strings");
+        }
+        for (List<CodegenParameter> parameters : Arrays.asList(operation.pathParams, operation.queryParams,
+                operation.headerParams, operation.formParams)) {
+            for (CodegenParameter parameter : parameters) {
+                for (String extension : Arrays.asList(ENCODED_EXTENSION, ENCODED_ITEM_EXTENSION)) {
+                    Object expression = parameter.vendorExtensions.get(extension);
+                    if (expression != null) {
+                        for (String pkg : Arrays.asList("strconv", "strings", "time")) {
+                            if (expression.toString().contains(pkg + ".")) {
+                                imports.add(pkg);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return imports;
+    }
+
+    /**
+     * @return whether a multi query parameter of the operation is still
+     *         iterated with reflect
+     */
+    static boolean usesReflect(CodegenOperation operation) {
+        for (CodegenParameter parameter : operation.queryParams) {
+            if (parameter.isCollectionFormatMulti && !parameter.vendorExtensions.containsKey(ENCODED_ITEM_EXTENSION)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the cases of parameters_test.mustache: the expression encoding a Go
+     *         value of each supported type, as expression, and the
+     *         parameterToString call it replaces, as reflective
+     */
+    static List<Map<String, String>> testCases() {
+        CodegenModel enumModel = new CodegenModel();
+        enumModel.isEnum = true;
+        enumModel.dataType = "string";
+        Map<String, CodegenModel> models = Collections.singletonMap("parameterTestEnum", enumModel);
+
+        List<Map<String, String>> cases = new ArrayList<>();
+        String[][] scalars = {
+                {"string", "\"d9c5a1\""},
+                {"parameterTestEnum", "parameterTestEnum(\"PARTSTUDIO\")"},
+                {"bool", "true"},
+                {"int", "int(7)"},
+                {"int32", "int32(-20)"},
+                {"int64", "int64(1) << 40"},
+                {"float32", "float32(0.1)"},
+                {"float64", "1e-7"},
+                {"float64", "12345678.9"},
+                {"time.Time", "when"},
+        };
+        for (String[] scalar : scalars) {
+            CodegenParameter parameter = new CodegenParameter();
+            parameter.dataType = scalar[0];
+            cases.add(testCase(parameter, scalar[1], "", models));
+        }
+        for (String collectionFormat : Arrays.asList("csv", "ssv", "tsv", "pipes")) {
+            CodegenParameter parameter = new CodegenParameter();
+            parameter.dataType = "[]string";
+            parameter.isArray = true;
+            parameter.items = new CodegenProperty();
+            parameter.items.dataType = "string";
+            parameter.collectionFormat = collectionFormat;
+            cases.add(testCase(parameter, "[]string{\"a\", \"b\", \"c\"}", collectionFormat, models));
+        }
+        return cases;
+    }
+
+    private static Map<String, String> testCase(CodegenParameter parameter, String value, String collectionFormat,
+                                                Map<String, CodegenModel> models) {
+        encode(parameter, value, models);
+        Map<String, String> c = new LinkedHashMap<>();
+        c.put("expression", (String) parameter.vendorExtensions.get(ENCODED_EXTENSION));
+        c.put("reflective", "parameterToString(" + value + ", " + Names.goString(collectionFormat) + ")");
+        return c;
+    }
+
+    private static int encode(CodegenParameter parameter, String value, Map<String, CodegenModel> models) {
+        if (parameter.isCollectionFormatMulti) {
+            String item = parameter.items == null ? null : scalar(parameter.items.dataType, "v", models);
+            if (item == null) {
+                return 1;
+            }
+            parameter.vendorExtensions.put(ENCODED_ITEM_EXTENSION, item);
+            return 0;
+        }
+        String expression;
+        if (parameter.isArray) {
+            String delimiter = DELIMITERS.get(parameter.collectionFormat == null ? "csv" : parameter.collectionFormat);
+            expression = delimiter != null && parameter.items != null && "string".equals(parameter.items.dataType)
+                    ? "strings.Join(" + value + ", " + Names.goString(delimiter) + ")"
+                    : null;
+        } else {
+            expression = scalar(parameter.dataType, value, models);
+        }
+        if (expression == null) {
+            return 1;
+        }
+        parameter.vendorExtensions.put(ENCODED_EXTENSION, expression);
+        return 0;
+    }
+
+    /**
+     * @return the expression formatting value of the Go type like
+     *         parameterToString does, or null when the type is not supported
+     */
+    private static String scalar(String type, String value, Map<String, CodegenModel> models) {
+        CodegenModel model = models.get(type);
+        if (model != null) {
+            // an enum, converted to its underlying type
+            if (!model.isEnum || models.containsKey(model.dataType)) {
+                return null;
+            }
+            return scalar(model.dataType, model.dataType + "(" + value + ")", models);
+        }
+        if (type == null) {
+            return null;
+        }
+        switch (type) {
+            case "string":
+                return value;
+            case "bool":
+                return "strconv.FormatBool(" + value + ")";
+            case "int64":
+                return "strconv.FormatInt(" + value + ", 10)";
+            case "int":
+            case "int32":
+                return "strconv.FormatInt(int64(" + value + "), 10)";
+            case "float64":
+                return "strconv.FormatFloat(" + value + ", 'g', -1, 64)";
+            case "float32":
+                return "strconv.FormatFloat(float64(" + value + "), 'g', -1, 32)";
+            case "time.Time":
+                return (value.startsWith("*") ? "(" + value + ")" : value) + ".Format(time.RFC3339)";
+            default:
+                return null;
+        }
+    }
+
+    private static void addPath(CodegenOperation operation) {
+        if (operation.pathParams.isEmpty()) {
+            return; // a single concatenation
+        }
+        Map<String, String> encoded = new HashMap<>();
+        for (CodegenParameter parameter : operation.pathParams) {
+            Object expression = parameter.vendorExtensions.get(ENCODED_EXTENSION);
+            if (expression == null) {
+                return;
+            }
+            encoded.put(parameter.baseName, expression.toString());
+        }
+
+        List<String> segments = new ArrayList<>();
+        int length = 0;
+        String path = operation.path;
+        int start = 0;
+        while (start < path.length()) {
+            int open = path.indexOf('{', start);
+            int close = open < 0 ? -1 : path.indexOf('}', open);
+            if (close < 0) {
+                segments.add(Names.goString(path.substring(start)));
+                length += path.length() - start;
+                break;
+            }
+            if (open > start) {
+                segments.add(Names.goString(path.substring(start, open)));
+                length += open - start;
+            }
+            String expression = encoded.get(path.substring(open + 1, close));
+            if (expression == null) {
+                return;
+            }
+            segments.add("url.PathEscape(" + expression + ")");
+            length += PATH_PARAMETER_LENGTH;
+            start = close + 1;
+        }
+
+        Map<String, Object> extension = new HashMap<>();
+        extension.put("segments", segments);
+        extension.put("length", length);
+        operation.vendorExtensions.put(PATH_EXTENSION, extension);
+    }
+}
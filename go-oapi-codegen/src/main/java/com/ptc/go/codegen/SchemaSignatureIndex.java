@@ -0,0 +1,358 @@
+package com.ptc.go.codegen;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.swagger.v3.oas.models.media.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Index of generated inline schemas keyed by a structural fingerprint.
+ * <p>
+ * Two schemas are considered the same model if they would serialize to the
+ * same JSON with the alphabetically sorted structure mapper. Rather than
+ * serializing every candidate to a string, each schema node is given a
+ * Merkle-style hash built from its own fields and the hashes of its child
+ * schemas. Entries sharing a hash are told apart with a full structural
+ * comparison.
+ * <p>
+ * The flattener keeps rewriting schemas in place after they were looked up,
+ * so hashes are only memoized for the duration of one {@link #find} or
+ * {@link #add}. An entry changed after it was added is compared as it is now,
+ * under the hash it had when it was added.
+ */
+class SchemaSignatureIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SchemaSignatureIndex.class);
+
+    // used for leaf values (examples, defaults, extensions, xml, ...), with the
+    // settings of the swagger mapper that affect how they are written
+    private static final ObjectMapper structureMapper = JsonMapper.builder()
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
+            .configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false)
+            .serializationInclusion(JsonInclude.Include.NON_NULL)
+            .addModule(new JavaTimeModule())
+            .build();
+
+    private final Map<Long, List<Entry>> entries = new HashMap<>();
+
+    private static final class Entry {
+        final Schema<?> schema;
+        final String name;
+
+        Entry(Schema<?> schema, String name) {
+            this.schema = schema;
+            this.name = name;
+        }
+    }
+
+    /**
+     * Find the name of a previously added schema structurally equal to the given
+     * one.
+     *
+     * @param schema candidate schema
+     * @return the name of the matching schema, or null if there is none
+     */
+    String find(Schema<?> schema) {
+        Map<Schema<?>, Long> hashes = new IdentityHashMap<>();
+        List<Entry> bucket = entries.get(hash(schema, hashes));
+        if (bucket == null) {
+            return null;
+        }
+        for (Entry entry : bucket) {
+            if (structurallyEqual(entry.schema, schema, hashes)) {
+                return entry.name;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Record a generated schema. If a structurally equal schema was already
+     * recorded, the new name replaces it.
+     *
+     * @param name   name of the generated schema
+     * @param schema generated schema
+     */
+    void add(String name, Schema<?> schema) {
+        Map<Schema<?>, Long> hashes = new IdentityHashMap<>();
+        List<Entry> bucket = entries.computeIfAbsent(hash(schema, hashes), k -> new ArrayList<>(1));
+        for (ListIterator<Entry> it = bucket.listIterator(); it.hasNext();) {
+            if (structurallyEqual(it.next().schema, schema, hashes)) {
+                it.set(new Entry(schema, name));
+                return;
+            }
+        }
+        bucket.add(new Entry(schema, name));
+    }
+
+    int size() {
+        int size = 0;
+        for (List<Entry> bucket : entries.values()) {
+            size += bucket.size();
+        }
+        return size;
+    }
+
+    long hash(Schema<?> schema) {
+        return hash(schema, new IdentityHashMap<>());
+    }
+
+    boolean structurallyEqual(Schema<?> a, Schema<?> b) {
+        return structurallyEqual(a, b, new IdentityHashMap<>());
+    }
+
+    private long hash(Schema<?> schema, Map<Schema<?>, Long> hashes) {
+        if (schema == null) {
+            return 0L;
+        }
+        Long memo = hashes.get(schema);
+        if (memo != null) {
+            return memo;
+        }
+
+        long h;
+        if (schema.get$ref() != null) {
+            // a $ref serializes to nothing but the reference
+            h = mix(17L, schema.get$ref().hashCode());
+        } else {
+            h = 31L;
+            h = mix(h, leafHash(schema.getTitle()));
+            h = mix(h, leafHash(schema.getMultipleOf()));
+            h = mix(h, leafHash(schema.getMaximum()));
+            h = mix(h, leafHash(schema.getExclusiveMaximum()));
+            h = mix(h, leafHash(schema.getMinimum()));
+            h = mix(h, leafHash(schema.getExclusiveMinimum()));
+            h = mix(h, leafHash(schema.getMaxLength()));
+            h = mix(h, leafHash(schema.getMinLength()));
+            h = mix(h, leafHash(schema.getPattern()));
+            h = mix(h, leafHash(schema.getMaxItems()));
+            h = mix(h, leafHash(schema.getMinItems()));
+            h = mix(h, leafHash(schema.getUniqueItems()));
+            h = mix(h, leafHash(schema.getMaxProperties()));
+            h = mix(h, leafHash(schema.getMinProperties()));
+            h = mix(h, leafHash(schema.getRequired()));
+            h = mix(h, leafHash(schema.getType()));
+            h = mix(h, hash(schema.getNot(), hashes));
+            h = mix(h, mapHash(schema.getProperties(), hashes));
+            Object additionalProperties = schema.getAdditionalProperties();
+            h = mix(h, additionalProperties instanceof Schema ? hash((Schema<?>) additionalProperties, hashes)
+                    : leafHash(additionalProperties));
+            h = mix(h, leafHash(schema.getDescription()));
+            h = mix(h, leafHash(schema.getFormat()));
+            h = mix(h, leafHash(schema.getNullable()));
+            h = mix(h, leafHash(schema.getReadOnly()));
+            h = mix(h, leafHash(schema.getWriteOnly()));
+            h = mix(h, leafHash(schema.getExample()));
+            h = mix(h, schema.getExample() == null && schema.getExampleSetFlag() ? 1 : 0);
+            h = mix(h, leafHash(schema.getExternalDocs()));
+            h = mix(h, leafHash(schema.getDeprecated()));
+            h = mix(h, leafHash(schema.getXml()));
+            h = mix(h, leafHash(schema.getDiscriminator()));
+            h = mix(h, listHash(schema.getAllOf(), hashes));
+            h = mix(h, listHash(schema.getAnyOf(), hashes));
+            h = mix(h, listHash(schema.getOneOf(), hashes));
+            h = mix(h, hash(schema.getItems(), hashes));
+            h = mix(h, leafHash(schema.get$vocabulary()));
+            h = mix(h, leafHash(schema.get$dynamicAnchor()));
+            h = mix(h, leafHash(schema.getDefault()));
+            h = mix(h, leafHash(schema.getEnum()));
+            h = mix(h, leafHash(schema.getExtensions()));
+        }
+
+        hashes.put(schema, h);
+        return h;
+    }
+
+    private boolean structurallyEqual(Schema<?> a, Schema<?> b, Map<Schema<?>, Long> hashes) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null || hash(a, hashes) != hash(b, hashes)) {
+            return false;
+        }
+        if (a.get$ref() != null || b.get$ref() != null) {
+            return Objects.equals(a.get$ref(), b.get$ref());
+        }
+
+        Object aAdditional = a.getAdditionalProperties();
+        Object bAdditional = b.getAdditionalProperties();
+        if (aAdditional instanceof Schema && bAdditional instanceof Schema) {
+            if (!structurallyEqual((Schema<?>) aAdditional, (Schema<?>) bAdditional, hashes)) {
+                return false;
+            }
+        } else if (!leafEqual(aAdditional, bAdditional)) {
+            return false;
+        }
+
+        return leafEqual(a.getTitle(), b.getTitle())
+                && leafEqual(a.getMultipleOf(), b.getMultipleOf())
+                && leafEqual(a.getMaximum(), b.getMaximum())
+                && leafEqual(a.getExclusiveMaximum(), b.getExclusiveMaximum())
+                && leafEqual(a.getMinimum(), b.getMinimum())
+                && leafEqual(a.getExclusiveMinimum(), b.getExclusiveMinimum())
+                && leafEqual(a.getMaxLength(), b.getMaxLength())
+                && leafEqual(a.getMinLength(), b.getMinLength())
+                && leafEqual(a.getPattern(), b.getPattern())
+                && leafEqual(a.getMaxItems(), b.getMaxItems())
+                && leafEqual(a.getMinItems(), b.getMinItems())
+                && leafEqual(a.getUniqueItems(), b.getUniqueItems())
+                && leafEqual(a.getMaxProperties(), b.getMaxProperties())
+                && leafEqual(a.getMinProperties(), b.getMinProperties())
+                && leafEqual(a.getRequired(), b.getRequired())
+                && leafEqual(a.getType(), b.getType())
+                && structurallyEqual(a.getNot(), b.getNot(), hashes)
+                && mapEqual(a.getProperties(), b.getProperties(), hashes)
+                && leafEqual(a.getDescription(), b.getDescription())
+                && leafEqual(a.getFormat(), b.getFormat())
+                && leafEqual(a.getNullable(), b.getNullable())
+                && leafEqual(a.getReadOnly(), b.getReadOnly())
+                && leafEqual(a.getWriteOnly(), b.getWriteOnly())
+                && leafEqual(a.getExample(), b.getExample())
+                && (a.getExample() != null || a.getExampleSetFlag() == b.getExampleSetFlag())
+                && leafEqual(a.getExternalDocs(), b.getExternalDocs())
+                && leafEqual(a.getDeprecated(), b.getDeprecated())
+                && leafEqual(a.getXml(), b.getXml())
+                && leafEqual(a.getDiscriminator(), b.getDiscriminator())
+                && listEqual(a.getAllOf(), b.getAllOf(), hashes)
+                && listEqual(a.getAnyOf(), b.getAnyOf(), hashes)
+                && listEqual(a.getOneOf(), b.getOneOf(), hashes)
+                && structurallyEqual(a.getItems(), b.getItems(), hashes)
+                && leafEqual(a.get$vocabulary(), b.get$vocabulary())
+                && leafEqual(a.get$dynamicAnchor(), b.get$dynamicAnchor())
+                && leafEqual(a.getDefault(), b.getDefault())
+                && leafEqual(a.getEnum(), b.getEnum())
+                && leafEqual(a.getExtensions(), b.getExtensions());
+    }
+
+    // the swagger models hold raw Schema lists and maps, whose items are
+    // cast to Schema<?>
+    private long listHash(List<?> schemas, Map<Schema<?>, Long> hashes) {
+        if (schemas == null) {
+            return 0L;
+        }
+        long h = 37L + schemas.size();
+        for (Object schema : schemas) {
+            h = mix(h, hash((Schema<?>) schema, hashes));
+        }
+        return h;
+    }
+
+    private long mapHash(Map<String, ?> schemas, Map<Schema<?>, Long> hashes) {
+        if (schemas == null) {
+            return 0L;
+        }
+        // map entries are serialized in iteration order, so the hash is too
+        long h = 41L + schemas.size();
+        for (Map.Entry<String, ?> entry : schemas.entrySet()) {
+            h = mix(h, entry.getKey().hashCode());
+            h = mix(h, hash((Schema<?>) entry.getValue(), hashes));
+        }
+        return h;
+    }
+
+    private boolean listEqual(List<?> a, List<?> b, Map<Schema<?>, Long> hashes) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null || a.size() != b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (!structurallyEqual((Schema<?>) a.get(i), (Schema<?>) b.get(i), hashes)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean mapEqual(Map<String, ?> a, Map<String, ?> b, Map<Schema<?>, Long> hashes) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null || a.size() != b.size()) {
+            return false;
+        }
+        Iterator<? extends Map.Entry<String, ?>> aEntries = a.entrySet().iterator();
+        Iterator<? extends Map.Entry<String, ?>> bEntries = b.entrySet().iterator();
+        while (aEntries.hasNext()) {
+            Map.Entry<String, ?> aEntry = aEntries.next();
+            Map.Entry<String, ?> bEntry = bEntries.next();
+            if (!aEntry.getKey().equals(bEntry.getKey())
+                    || !structurallyEqual((Schema<?>) aEntry.getValue(), (Schema<?>) bEntry.getValue(), hashes)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long leafHash(Object value) {
+        if (value == null) {
+            return 0L;
+        }
+        if (value instanceof String) {
+            return 3L * value.hashCode() + 1;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return 3L * value.toString().hashCode() + 2;
+        }
+        return leafKey(value).hashCode();
+    }
+
+    private static boolean leafEqual(Object a, Object b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null) {
+            return false;
+        }
+        if (a instanceof String || b instanceof String) {
+            return a.equals(b);
+        }
+        return leafKey(a).equals(leafKey(b));
+    }
+
+    /**
+     * Canonical form of a non-schema value, matching how it appears in JSON.
+     * Scalars are handled directly; anything else is serialized on its own.
+     */
+    private static String leafKey(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof String) {
+            return "s" + value;
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return "n" + value;
+        }
+        if (value instanceof List) {
+            StringBuilder key = new StringBuilder("l");
+            for (Object item : (List<?>) value) {
+                key.append(leafKey(item)).append('\u0000');
+            }
+            return key.toString();
+        }
+        try {
+            return "j" + structureMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            LOGGER.warn("Unable to serialize schema value {}", value, e);
+            return "o" + value;
+        }
+    }
+
+    private static long mix(long h, long v) {
+        h ^= v + 0x9E3779B97F4A7C15L + (h << 6) + (h >>> 2);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,334 @@
+package com.ptc.go.codegen;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Applies the {@code generate.preprocess} rules of a bindgen-config.json file
+ * to the parsed spec.
+ * <p>
+ * Each rule has a {@code type} of {@code remove} or {@code update}, a
+ * {@code key} locating the value in the spec and, for updates, the JSON
+ * {@code value} to set. Keys are either JSON pointers
+ * ({@code /paths/~1api~1documents/get}) or JavaScript property accesses as
+ * used by the previous json CLI based script
+ * ({@code paths["/api/documents"].get}).
+ * <p>
+ * Rules are applied in order directly to the {@link OpenAPI} object graph,
+ * using the same Jackson property names the spec is serialized with. A rule
+ * that cannot be applied, e.g. because its key does not resolve, fails the
+ * run once every rule was tried, so that stale rules are noticed. Array items removed by a rule are
+ * only dropped once all rules ran, so every index refers to the original array,
+ * as with the script.
+ */
+class SpecPreprocessor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpecPreprocessor.class);
+
+    static final String REMOVE = "remove";
+    static final String UPDATE = "update";
+
+    private static final ObjectMapper mapper = Json.mapper();
+    private static final String EXTENSION_PREFIX = "x-";
+
+    private final List<Rule> rules;
+    private final Map<Class<?>, Map<String, BeanPropertyDefinition>> properties = new HashMap<>();
+
+    static final class Rule {
+        final String type;
+        final String key;
+        final JsonNode value;
+
+        Rule(String type, String key, JsonNode value) {
+            this.type = type;
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    SpecPreprocessor(List<Rule> rules) {
+        for (Rule rule : rules) {
+            if (!REMOVE.equals(rule.type) && !UPDATE.equals(rule.type)) {
+                throw new IllegalArgumentException(
+                        "Unknown preprocessor replacement type " + rule.type + " for key " + rule.key);
+            }
+        }
+        this.rules = rules;
+    }
+
+    /**
+     * Read the rules from the {@code generate.preprocess} array of a
+     * bindgen-config.json file
+     *
+     * @param config bindgen-config.json file
+     */
+    static SpecPreprocessor fromConfig(File config) throws IOException {
+        JsonNode preprocess = mapper.readTree(config).path("generate").path("preprocess");
+        if (!preprocess.isArray()) {
+            throw new IOException("No generate.preprocess array in " + config);
+        }
+        List<Rule> rules = new ArrayList<>();
+        for (JsonNode rule : preprocess) {
+            rules.add(new Rule(rule.path("type").asText(), rule.path("key").asText(), rule.get("value")));
+        }
+        return new SpecPreprocessor(rules);
+    }
+
+    int size() {
+        return rules.size();
+    }
+
+    /**
+     * @throws IllegalArgumentException when a rule could not be applied
+     */
+    void apply(OpenAPI openAPI) {
+        Map<List<?>, TreeSet<Integer>> removedItems = new IdentityHashMap<>();
+        List<String> failures = new ArrayList<>();
+
+        for (Rule rule : rules) {
+            try {
+                List<String> path = parseKey(rule.key);
+                if (path.isEmpty()) {
+                    throw new IllegalArgumentException("empty key");
+                }
+
+                Object parent = openAPI;
+                JavaType parentType = mapper.constructType(OpenAPI.class);
+                for (String segment : path.subList(0, path.size() - 1)) {
+                    Object child = get(parent, segment);
+                    if (child == null) {
+                        throw new IllegalArgumentException(segment + " is undefined");
+                    }
+                    parentType = childType(parent, parentType, segment);
+                    parent = child;
+                }
+
+                String last = path.get(path.size() - 1);
+                if (REMOVE.equals(rule.type)) {
+                    remove(parent, last, removedItems);
+                } else {
+                    if (rule.value == null) {
+                        throw new IllegalArgumentException("no value");
+                    }
+                    set(parent, parentType, last, rule.value);
+                }
+            } catch (RuntimeException e) {
+                LOGGER.error("Could not {} key: {} ({})", rule.type, rule.key, e.getMessage());
+                failures.add(rule.key);
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Could not apply the preprocess rules for " + String.join(", ", failures));
+        }
+
+        removedItems.forEach((list, indexes) -> {
+            for (int index : indexes.descendingSet()) {
+                list.remove(index);
+            }
+        });
+    }
+
+    /**
+     * Split a JSON pointer or a JavaScript property access into its segments
+     * <p>
+     * e.g. paths['/api/documents'].get.parameters[0] => [paths, /api/documents,
+     * get, parameters, 0]
+     */
+    static List<String> parseKey(String key) {
+        List<String> segments = new ArrayList<>();
+        if (key.startsWith("#/")) {
+            key = key.substring(1);
+        }
+
+        if (key.startsWith("/")) {
+            for (String segment : key.substring(1).split("/", -1)) {
+                segments.add(segment.replace("~1", "/").replace("~0", "~"));
+            }
+            return segments;
+        }
+
+        StringBuilder segment = new StringBuilder();
+        int i = 0;
+        while (i < key.length()) {
+            char c = key.charAt(i);
+            if (c == '.' || c == '[') {
+                if (segment.length() > 0) {
+                    segments.add(segment.toString());
+                    segment.setLength(0);
+                }
+                i++;
+                if (c == '[') {
+                    i = parseBracket(key, i, segments);
+                }
+            } else {
+                segment.append(c);
+                i++;
+            }
+        }
+        if (segment.length() > 0) {
+            segments.add(segment.toString());
+        }
+        return segments;
+    }
+
+    // parses ["name"], ['name'] or [0] starting after the bracket; returns the index after ]
+    private static int parseBracket(String key, int i, List<String> segments) {
+        StringBuilder segment = new StringBuilder();
+        char quote = i < key.length() ? key.charAt(i) : 0;
+        if (quote == '"' || quote == '\'') {
+            i++;
+            while (i < key.length() && key.charAt(i) != quote) {
+                if (key.charAt(i) == '\\' && i + 1 < key.length()) {
+                    i++;
+                }
+                segment.append(key.charAt(i++));
+            }
+            i++;
+        } else {
+            while (i < key.length() && key.charAt(i) != ']') {
+                segment.append(key.charAt(i++));
+            }
+        }
+
+        if (i >= key.length() || key.charAt(i) != ']') {
+            throw new IllegalArgumentException("unterminated [ in " + key);
+        }
+        segments.add(segment.toString().trim());
+        return i + 1;
+    }
+
+    private Object get(Object parent, String segment) {
+        if (parent instanceof Map) {
+            return ((Map<?, ?>) parent).get(segment);
+        } else if (parent instanceof List) {
+            List<?> list = (List<?>) parent;
+            int index = index(segment);
+            return index < list.size() ? list.get(index) : null;
+        } else if (segment.startsWith(EXTENSION_PREFIX)) {
+            Map<String, Object> extensions = extensions(parent, false);
+            return extensions == null ? null : extensions.get(segment);
+        }
+        return property(parent, segment).getAccessor().getValue(parent);
+    }
+
+    private JavaType childType(Object parent, JavaType parentType, String segment) {
+        if (parent instanceof Map || parent instanceof List) {
+            return parentType.getContentType();
+        } else if (segment.startsWith(EXTENSION_PREFIX)) {
+            return mapper.constructType(Object.class);
+        }
+        return property(parent, segment).getPrimaryType();
+    }
+
+    private void set(Object parent, JavaType parentType, String segment, JsonNode value) {
+        if (parent instanceof Map) {
+            ((Map<String, Object>) parent).put(segment, convert(value, parentType.getContentType()));
+        } else if (parent instanceof List) {
+            List<Object> list = (List<Object>) parent;
+            int index = index(segment);
+            Object item = convert(value, parentType.getContentType());
+            if (index < list.size()) {
+                list.set(index, item);
+            } else if (index == list.size()) {
+                list.add(item);
+            } else {
+                throw new IllegalArgumentException("index " + index + " is past the end of the array");
+            }
+        } else if (segment.startsWith(EXTENSION_PREFIX)) {
+            extensions(parent, true).put(segment, convert(value, mapper.constructType(Object.class)));
+        } else {
+            BeanPropertyDefinition property = property(parent, segment);
+            if (!property.hasSetter()) {
+                throw new IllegalArgumentException(segment + " cannot be set");
+            }
+            JavaType type = property.getPrimaryType();
+            // a schema, or true/false
+            if (parent instanceof Schema && "additionalProperties".equals(segment) && value.isObject()) {
+                type = mapper.constructType(Schema.class);
+            }
+            property.getSetter().setValue(parent, convert(value, type));
+        }
+    }
+
+    private void remove(Object parent, String segment, Map<List<?>, TreeSet<Integer>> removedItems) {
+        if (parent instanceof Map) {
+            ((Map<?, ?>) parent).remove(segment);
+        } else if (parent instanceof List) {
+            int index = index(segment);
+            if (index < ((List<?>) parent).size()) {
+                removedItems.computeIfAbsent((List<?>) parent, k -> new TreeSet<>()).add(index);
+            }
+        } else if (segment.startsWith(EXTENSION_PREFIX)) {
+            Map<String, Object> extensions = extensions(parent, false);
+            if (extensions != null) {
+                extensions.remove(segment);
+            }
+        } else {
+            BeanPropertyDefinition property = property(parent, segment);
+            if (!property.hasSetter()) {
+                throw new IllegalArgumentException(segment + " cannot be removed");
+            }
+            property.getSetter().setValue(parent, null);
+        }
+    }
+
+    private static Object convert(JsonNode value, JavaType type) {
+        return mapper.convertValue(value, type);
+    }
+
+    private static int index(String segment) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(segment + " is not an array index");
+        }
+    }
+
+    private Map<String, Object> extensions(Object parent, boolean create) {
+        try {
+            Map<String, Object> extensions = (Map<String, Object>) parent.getClass().getMethod("getExtensions")
+                    .invoke(parent);
+            if (extensions == null && create) {
+                extensions = new LinkedHashMap<>();
+                parent.getClass().getMethod("setExtensions", Map.class).invoke(parent, extensions);
+            }
+            return extensions;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(parent.getClass().getSimpleName() + " has no extensions");
+        }
+    }
+
+    private BeanPropertyDefinition property(Object parent, String segment) {
+        Map<String, BeanPropertyDefinition> byName = properties.computeIfAbsent(parent.getClass(), c -> {
+            BeanDescription description = mapper.getSerializationConfig().introspect(mapper.constructType(c));
+            Map<String, BeanPropertyDefinition> map = new HashMap<>();
+            for (BeanPropertyDefinition property : description.findProperties()) {
+                AnnotatedMember accessor = property.getAccessor();
+                if (accessor != null) {
+                    map.put(property.getName(), property);
+                }
+            }
+            return map;
+        });
+
+        BeanPropertyDefinition property = byName.get(segment);
+        if (property == null) {
+            throw new IllegalArgumentException(
+                    parent.getClass().getSimpleName() + " has no property " + segment);
+        }
+        return property;
+    }
+}
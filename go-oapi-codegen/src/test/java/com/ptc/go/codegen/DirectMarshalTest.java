@@ -0,0 +1,110 @@
+package com.ptc.go.codegen;
+
+import org.junit.Test;
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.CodegenProperty;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class DirectMarshalTest {
+    private final Map<String, CodegenModel> models = new HashMap<>();
+
+    // properties ending with * are required, with ? nullable
+    private CodegenModel model(String name, String parent, String... properties) {
+        CodegenModel model = new CodegenModel();
+        model.classname = name;
+        model.parent = parent;
+        for (String property : properties) {
+            CodegenProperty p = new CodegenProperty();
+            p.required = property.endsWith("*");
+            p.isNullable = property.endsWith("?");
+            p.baseName = p.required || p.isNullable ? property.substring(0, property.length() - 1) : property;
+            p.name = Character.toUpperCase(p.baseName.charAt(0)) + p.baseName.substring(1);
+            model.allVars.add(p);
+        }
+        models.put(name, model);
+        return model;
+    }
+
+    // key: condition -> value of each source of each field, e.g. "a": o.A != nil -> o.A
+    private static List<String> fields(CodegenModel model) {
+        List<String> fields = new ArrayList<>();
+        for (Map<String, Object> field : (List<Map<String, Object>>) model.vendorExtensions
+                .get(DirectMarshal.FIELDS_EXTENSION)) {
+            List<String> sources = new ArrayList<>();
+            for (Map<String, Object> source : (List<Map<String, Object>>) field.get("sources")) {
+                sources.add(((boolean) source.get("conditional") ? source.get("condition") : "always")
+                        + " -> " + source.get("value"));
+            }
+            fields.add(field.get("key") + ": " + String.join(", ", sources));
+        }
+        return fields;
+    }
+
+    @Test
+    public void writesPropertiesInTheOrderOfAMap() {
+        CodegenModel model = model("Circle", null, "radius*", "name", "Zeta", "color?", "area*");
+        model.allVars.get(3).required = true;
+        model.allVars.add(new CodegenProperty());
+        model.allVars.get(5).baseName = "tags";
+        model.allVars.get(5).name = "Tags";
+        model.allVars.get(5).isNullable = true;
+        model.allVars.get(5).vendorExtensions.put("x-golang-is-container", true);
+
+        assertTrue(DirectMarshal.apply(model, models));
+        assertEquals(true, model.vendorExtensions.get(DirectMarshal.EXTENSION));
+        assertEquals(Arrays.asList(
+                "\"\\\"Zeta\\\":\": o.Zeta != nil -> o.Zeta",
+                "\"\\\"area\\\":\": always -> o.Area",
+                "\"\\\"color\\\":\": always -> o.Color.Get()",
+                "\"\\\"name\\\":\": o.Name != nil -> o.Name",
+                "\"\\\"radius\\\":\": always -> o.Radius",
+                "\"\\\"tags\\\":\": o.Tags != nil -> o.Tags"), fields(model));
+    }
+
+    @Test
+    public void takesUnsetPropertiesFromTheParents() {
+        model("Shape", null, "btType", "name*", "id");
+        model("Feature", "Shape", "btType?", "suppressed");
+        CodegenModel sketch = model("Sketch", "Feature", "btType", "name", "entities");
+
+        assertTrue(DirectMarshal.apply(sketch, models));
+        assertEquals(Arrays.asList(
+                "\"\\\"btType\\\":\": o.BtType != nil -> o.BtType, o.Feature.BtType.IsSet() -> o.Feature.BtType.Get(),"
+                        + " o.Feature.Shape.BtType != nil -> o.Feature.Shape.BtType",
+                "\"\\\"entities\\\":\": o.Entities != nil -> o.Entities",
+                "\"\\\"id\\\":\": o.Feature.Shape.Id != nil -> o.Feature.Shape.Id",
+                "\"\\\"name\\\":\": o.Name != nil -> o.Name, always -> o.Feature.Shape.Name",
+                "\"\\\"suppressed\\\":\": o.Feature.Suppressed != nil -> o.Feature.Suppressed"), fields(sketch));
+    }
+
+    @Test
+    public void escapesKeys() {
+        CodegenModel model = model("Odd", null, "a<b>", "quote\"d");
+
+        assertTrue(DirectMarshal.apply(model, models));
+        assertEquals(Arrays.asList(
+                "\"\\\"a\\\\u003cb\\\\u003e\\\":\": o.A<b> != nil -> o.A<b>",
+                "\"\\\"quote\\\\\\\"d\\\":\": o.Quote\"d != nil -> o.Quote\"d"), fields(model));
+    }
+
+    @Test
+    public void keepsTheMapForAdditionalPropertiesAndOneOfParents() {
+        model("Labels", null, "a").isAdditionalPropertiesTrue = true;
+        model("Shape", null, "btType").oneOf.add("Circle");
+        CodegenModel labelled = model("Labelled", "Labels", "b");
+        CodegenModel circle = model("Circle", "Shape", "radius");
+        CodegenModel orphan = model("Orphan", "Missing", "c");
+        CodegenModel list = model("List", null);
+        list.isArray = true;
+
+        for (CodegenModel model : Arrays.asList(models.get("Labels"), labelled, circle, orphan, list)) {
+            assertFalse(model.classname, DirectMarshal.apply(model, models));
+            assertNull(model.vendorExtensions.get(DirectMarshal.EXTENSION));
+        }
+        // the base of a oneOf is marshalled directly
+        assertTrue(DirectMarshal.apply(models.get("Shape"), models));
+    }
+}
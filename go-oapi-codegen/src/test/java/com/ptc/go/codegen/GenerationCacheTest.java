@@ -0,0 +1,157 @@
+package com.ptc.go.codegen;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.Discriminator;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class GenerationCacheTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Schema ref(String name) {
+        return new Schema().$ref("#/components/schemas/" + name);
+    }
+
+    private static Operation get(String tag, String operationId, String response) {
+        return new Operation().operationId(operationId).tags(Collections.singletonList(tag))
+                .responses(new ApiResponses().addApiResponse("200", new ApiResponse().description("ok")
+                        .content(new Content().addMediaType("application/json", new MediaType().schema(ref(response))))));
+    }
+
+    private static OpenAPI spec(String ownerDescription, String documentsSummary) {
+        return spec(ownerDescription, documentsSummary, "1.0");
+    }
+
+    private static OpenAPI spec(String ownerDescription, String documentsSummary, String version) {
+        Components components = new Components()
+                .addSchemas("BTOwnerInfo", new Schema().type("object")
+                        .addProperty("name", new Schema().type("string").description(ownerDescription)))
+                .addSchemas("BTNode", new Schema().type("object")
+                        .addProperty("owner", ref("BTOwnerInfo")))
+                .addSchemas("BTFolder", new Schema().allOf(Arrays.asList(ref("BTNode"),
+                        new Schema().type("object").addProperty("canMove", new Schema().type("boolean")))))
+                .addSchemas("BTPart", new Schema().type("object")
+                        .addProperty("partId", new Schema().type("string")));
+        Paths paths = new Paths()
+                .addPathItem("/documents", new PathItem().get(get("Document", "getDocuments", "BTNode")
+                        .summary(documentsSummary)))
+                .addPathItem("/parts", new PathItem().get(get("Part", "getParts", "BTPart")));
+        return new OpenAPI().info(new Info().title("Onshape").version(version)).paths(paths).components(components);
+    }
+
+    private static GenerationCache hash(OpenAPI openAPI) {
+        return GenerationCache.of(openAPI, "generator", "1.0.0", Function.identity());
+    }
+
+    @Test
+    public void rendersModelsAndApisAffectedByAChange() {
+        GenerationCache previous = hash(spec("name", "list"));
+        GenerationCache current = hash(spec("owner name", "list"));
+
+        assertTrue(current.canReuse(previous));
+        // BTFolder extends BTNode, which the Document API returns
+        assertEquals(new TreeSet<>(Arrays.asList("BTOwnerInfo", "BTNode", "BTFolder")),
+                current.modelsToRender(previous));
+        assertEquals(Collections.singleton("Document"), current.apisToRender(previous));
+    }
+
+    @Test
+    public void rendersNothingWhenUnchanged() {
+        GenerationCache previous = hash(spec("name", "list"));
+        GenerationCache current = hash(spec("name", "list"));
+
+        assertTrue(current.canReuse(previous));
+        assertTrue(current.modelsToRender(previous).isEmpty());
+        assertTrue(current.apisToRender(previous).isEmpty());
+    }
+
+    @Test
+    public void versionsAndSummariesOnlyRenderTheSupportingFilesShowingThem() {
+        GenerationCache previous = hash(spec("name", "list"));
+
+        GenerationCache version = hash(spec("name", "list", "1.1"));
+        assertTrue(version.canReuse(previous));
+        assertFalse(version.layoutChanged(previous));
+        assertTrue(version.modelsToRender(previous).isEmpty());
+        assertTrue(version.apisToRender(previous).isEmpty());
+        assertEquals(new TreeSet<>(Arrays.asList("README.md", "client.go")), version.filesToRender(previous));
+
+        GenerationCache packageVersion = GenerationCache.of(spec("name", "list"), "generator", "1.0.1",
+                Function.identity());
+        assertTrue(packageVersion.canReuse(previous));
+        assertTrue(packageVersion.modelsToRender(previous).isEmpty());
+        assertEquals(new TreeSet<>(Arrays.asList("README.md", "configuration.go")),
+                packageVersion.filesToRender(previous));
+
+        // the summary is also in the API comments
+        GenerationCache summary = hash(spec("name", "list documents"));
+        assertTrue(summary.canReuse(previous));
+        assertTrue(summary.modelsToRender(previous).isEmpty());
+        assertEquals(Collections.singleton("Document"), summary.apisToRender(previous));
+        assertEquals(Collections.singleton("README.md"), summary.filesToRender(previous));
+    }
+
+    @Test
+    public void childrenOnlyAffectParentsWithADiscriminator() {
+        OpenAPI before = spec("name", "list");
+        OpenAPI after = spec("name", "list");
+        ((Schema) after.getComponents().getSchemas().get("BTFolder").getAllOf().get(1)).getProperties()
+                .put("canMove", new Schema().type("boolean").description("whether the folder can be moved"));
+
+        assertEquals(Collections.singleton("BTFolder"), hash(after).modelsToRender(hash(before)));
+
+        before.getComponents().getSchemas().get("BTNode").discriminator(new Discriminator().propertyName("type"));
+        after.getComponents().getSchemas().get("BTNode").discriminator(new Discriminator().propertyName("type"));
+        after.getComponents().getSchemas().get("BTFolder").addExtension("x-discriminator-value", "folder");
+
+        // BTNode maps BTFolder by its discriminator value, not by its content
+        assertEquals(new TreeSet<>(Arrays.asList("BTNode", "BTFolder")), hash(after).modelsToRender(hash(before)));
+    }
+
+    @Test
+    public void cannotReuseAfterStructuralChanges() {
+        GenerationCache previous = hash(spec("name", "list"));
+
+        assertFalse(GenerationCache.of(spec("name", "list"), "other generator", "1.0.0", Function.identity())
+                .canReuse(previous));
+        assertFalse(hash(spec("name", "list")).canReuse(null));
+
+        OpenAPI added = spec("name", "list");
+        added.getPaths().addPathItem("/folders", new PathItem().get(get("Document", "getFolders", "BTFolder")));
+        GenerationCache current = hash(added);
+        assertTrue(current.canReuse(previous));
+        assertTrue(current.layoutChanged(previous));
+    }
+
+    @Test
+    public void roundTripsThroughFile() throws Exception {
+        File file = new File(folder.getRoot(), "cache/bindgen-cache.json");
+        hash(spec("name", "list")).save(file);
+
+        GenerationCache loaded = GenerationCache.load(file);
+        GenerationCache current = hash(spec("name", "list"));
+        assertTrue(current.canReuse(loaded));
+        assertTrue(current.modelsToRender(loaded).isEmpty());
+        assertNull(GenerationCache.load(new File(folder.getRoot(), "missing.json")));
+    }
+}
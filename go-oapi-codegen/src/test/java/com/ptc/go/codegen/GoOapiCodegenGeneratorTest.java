@@ -1,9 +1,40 @@
 package com.ptc.go.codegen;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.After;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.openapitools.codegen.ClientOptInput;
+import org.openapitools.codegen.CodegenDiscriminator;
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.CodegenProperty;
 import org.openapitools.codegen.DefaultGenerator;
+import org.openapitools.codegen.config.GlobalSettings;
 import org.openapitools.codegen.config.CodegenConfigurator;
+import org.openapitools.codegen.model.ModelMap;
+import org.openapitools.codegen.model.ModelsMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
 
 /***
  * This test allows you to easily launch your code generation software under a debugger.
@@ -16,4 +47,211 @@ import org.openapitools.codegen.config.CodegenConfigurator;
  *
  */
 public class GoOapiCodegenGeneratorTest {
-}
\ No newline at end of file
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void resetGlobalSettings() {
+        GlobalSettings.reset();
+    }
+
+    private static List<String> resolveNames(String... names) {
+        CodegenModel model = new CodegenModel();
+        for (String name : names) {
+            CodegenProperty property = new CodegenProperty();
+            property.name = name;
+            model.allVars.add(property);
+        }
+        ModelMap modelMap = new ModelMap();
+        modelMap.setModel(model);
+        ModelsMap models = new ModelsMap();
+        models.setModels(new ArrayList<>(Collections.singletonList(modelMap)));
+
+        new GoOapiCodegenGenerator().resolveParameterNamingConflicts(models);
+
+        return model.allVars.stream().map(p -> p.name).collect(Collectors.toList());
+    }
+
+    @Test
+    public void suffixesPropertiesNamedLikeAccessors() {
+        assertEquals(Arrays.asList("Name", "GetName_", "GetNameOk_", "HasName_", "SetName_", "Value"),
+                resolveNames("Name", "GetName", "GetNameOk", "HasName", "SetName", "Value"));
+    }
+
+    @Test
+    public void resolvesConflictsAgainstRenamedProperties() {
+        // GetName is renamed first, so GetGetName_ now clashes with the getter of
+        // GetName_ while GetGetName no longer clashes with anything
+        assertEquals(Arrays.asList("GetName_", "GetGetName__", "Name", "GetGetName"),
+                resolveNames("GetName", "GetGetName_", "Name", "GetGetName"));
+    }
+
+    @Test
+    public void keepsOneDiscriminatorCasePerMappingName() {
+        CodegenDiscriminator discriminator = new CodegenDiscriminator();
+        discriminator.setMappedModels(new LinkedHashSet<>(Arrays.asList(
+                new CodegenDiscriminator.MappedModel("cat", "Cat", true),
+                new CodegenDiscriminator.MappedModel("Cat", "Cat", false),
+                new CodegenDiscriminator.MappedModel("cat", "Lion", false))));
+        CodegenModel model = new CodegenModel();
+        model.discriminator = discriminator;
+        ModelMap modelMap = new ModelMap();
+        modelMap.setModel(model);
+        ModelsMap models = new ModelsMap();
+        models.setModels(new ArrayList<>(Collections.singletonList(modelMap)));
+
+        new GoOapiCodegenGenerator().addDiscriminatorCases(models);
+
+        List<CodegenDiscriminator.MappedModel> cases = (List<CodegenDiscriminator.MappedModel>) discriminator
+                .getVendorExtensions().get("x-go-discriminator-cases");
+        assertEquals(Arrays.asList("cat:Cat", "Cat:Cat"), cases.stream()
+                .map(c -> c.getMappingName() + ":" + c.getModelName()).collect(Collectors.toList()));
+    }
+
+    private static void generate(File spec, File output, File cache) {
+        generate(spec, output, cache, null);
+    }
+
+    private static void generate(File spec, File output, File cache, File preprocessConfig) {
+        CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName("go-oapi-codegen")
+                .setInputSpec(spec.getAbsolutePath())
+                .setOutputDir(output.getAbsolutePath())
+                .addGlobalProperty("apiTests", "false")
+                .addGlobalProperty("modelTests", "false");
+        if (cache != null) {
+            configurator.addAdditionalProperty(GoOapiCodegenGenerator.INCREMENTAL_CACHE, cache.getAbsolutePath())
+                    .addAdditionalProperty(GoOapiCodegenGenerator.GENERATION_REPORT, "true");
+        }
+        if (preprocessConfig != null) {
+            configurator.addAdditionalProperty(GoOapiCodegenGenerator.PREPROCESS_CONFIG,
+                    preprocessConfig.getAbsolutePath());
+        }
+        ClientOptInput input = configurator.toClientOptInput();
+        new DefaultGenerator().opts(input).generate();
+    }
+
+    /**
+     * @return the content of the generated files by path, without the
+     *         .openapi-generator metadata
+     */
+    private static Map<String, String> files(File output) throws IOException {
+        Map<String, String> files = new TreeMap<>();
+        Path root = output.toPath();
+        for (Path file : Files.walk(root).filter(Files::isRegularFile).collect(Collectors.toList())) {
+            String path = root.relativize(file).toString();
+            if (!path.startsWith(".openapi-generator")) {
+                files.put(path, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+            }
+        }
+        return files;
+    }
+
+    @Test
+    public void incrementalGenerationMatchesAFullGeneration() throws IOException {
+        File spec = folder.newFile("documents.json");
+        String original = new String(Files.readAllBytes(new File("src/test/resources/documents.json").toPath()),
+                StandardCharsets.UTF_8);
+        Files.write(spec.toPath(), original.getBytes(StandardCharsets.UTF_8));
+        File incremental = folder.newFolder("incremental");
+        File cache = new File(folder.getRoot(), "cache.json");
+        generate(spec, incremental, cache);
+
+        // an enum value and an operation change, the response of the operation does not
+        Files.write(spec.toPath(), original
+                .replace("\"DRAWING_ELEMENT\", ", "\"DRAWING_ELEMENT\", \"BILLOFMATERIALS\", ")
+                .replace("\"operationId\": \"getDocuments\",", "\"operationId\": \"getDocuments\", \"description\": \"Search\",")
+                .getBytes(StandardCharsets.UTF_8));
+        Path deleted = incremental.toPath().resolve("model_bt_folder_info.go");
+        assertTrue(Files.deleteIfExists(deleted));
+        generate(spec, incremental, cache);
+
+        File full = folder.newFolder("full");
+        generate(spec, full, null);
+        Map<String, String> expected = files(full);
+        assertTrue(expected.get("model_bt_element_type.go").contains("BILLOFMATERIALS"));
+        assertEquals(expected, files(incremental));
+        JsonNode report = new ObjectMapper().readTree(
+                new File(incremental, ".openapi-generator/generation-report.json"));
+        assertTrue(report.path("counters").path("reusedFiles").asInt() > 0);
+        assertTrue(report.path("phases").has("templates"));
+        assertFalse(report.path("phases").has("parse"));
+    }
+
+    @Test
+    public void versionBumpReusesModelsAndApis() throws IOException {
+        File spec = folder.newFile("documents.json");
+        String original = new String(Files.readAllBytes(new File("src/test/resources/documents.json").toPath()),
+                StandardCharsets.UTF_8);
+        Files.write(spec.toPath(), original.getBytes(StandardCharsets.UTF_8));
+        File incremental = folder.newFolder("incremental");
+        File cache = new File(folder.getRoot(), "cache.json");
+        generate(spec, incremental, cache);
+
+        // what changes between two nightly specs
+        Files.write(spec.toPath(), original
+                .replace("\"version\": \"1.2.3\"", "\"version\": \"1.2.4\"")
+                .replace("\"operationId\": \"getDocuments\",", "\"operationId\": \"getDocuments\", \"summary\": \"Search\",")
+                .getBytes(StandardCharsets.UTF_8));
+        generate(spec, incremental, cache);
+
+        File full = folder.newFolder("full");
+        generate(spec, full, null);
+        Map<String, String> expected = files(full);
+        assertTrue(expected.get("client.go").contains("API v1.2.4"));
+        assertEquals(expected, files(incremental));
+        long models = expected.keySet().stream().filter(path -> path.startsWith("model_")).count();
+        JsonNode report = new ObjectMapper().readTree(
+                new File(incremental, ".openapi-generator/generation-report.json"));
+        assertTrue(report.path("counters").path("reusedFiles").asInt() > models);
+    }
+
+    /**
+     * Apply the preprocess rules of a bindgen-config.json file to the raw JSON
+     * document, the way the bindings workflow used to with the json CLI
+     */
+    private static void preprocessJson(JsonNode spec, JsonNode config) {
+        Map<ArrayNode, TreeSet<Integer>> removedItems = new IdentityHashMap<>();
+        for (JsonNode rule : config.path("generate").path("preprocess")) {
+            List<String> path = SpecPreprocessor.parseKey(rule.path("key").asText());
+            JsonNode parent = spec;
+            for (String segment : path.subList(0, path.size() - 1)) {
+                parent = parent.isArray() ? parent.get(Integer.parseInt(segment)) : parent.get(segment);
+            }
+            String last = path.get(path.size() - 1);
+            if (SpecPreprocessor.REMOVE.equals(rule.path("type").asText())) {
+                if (parent.isArray()) {
+                    removedItems.computeIfAbsent((ArrayNode) parent, a -> new TreeSet<>()).add(Integer.parseInt(last));
+                } else {
+                    ((ObjectNode) parent).remove(last);
+                }
+            } else if (parent.isArray()) {
+                ((ArrayNode) parent).set(Integer.parseInt(last), rule.get("value"));
+            } else {
+                ((ObjectNode) parent).set(last, rule.get("value"));
+            }
+        }
+        removedItems.forEach((array, indexes) -> indexes.descendingSet().forEach(array::remove));
+    }
+
+    @Test
+    public void preprocessConfigMatchesPreprocessingTheJson() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        File config = new File("src/test/resources/bindgen-config.json");
+        JsonNode json = mapper.readTree(new File("src/test/resources/documents.json"));
+        preprocessJson(json, mapper.readTree(config));
+        File preprocessed = folder.newFile("preprocessed.json");
+        mapper.writeValue(preprocessed, json);
+        File expected = folder.newFolder("expected");
+        generate(preprocessed, expected, null);
+
+        File actual = folder.newFolder("actual");
+        generate(new File("src/test/resources/documents.json"), actual, null, config);
+
+        Map<String, String> files = files(actual);
+        assertFalse(files.containsKey("api_blob_element.go"));
+        assertFalse(files.get("model_bt_element_type.go").contains("unknown"));
+        assertFalse(files.get("model_bt_document_info.go").contains("Thumbnail"));
+        assertEquals(files(expected), files);
+    }
+}
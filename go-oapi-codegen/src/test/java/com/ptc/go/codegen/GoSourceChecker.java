@@ -0,0 +1,1246 @@
+package com.ptc.go.codegen;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks that generated Go files parse, without a Go toolchain.
+ * <p>
+ * The parser follows the grammar of the Go specification the way go/parser
+ * does, including automatic semicolons and the composite literal ambiguity of
+ * control clauses, up to Go 1.17: there are no type parameters. It does not
+ * build a syntax tree. It also reports the errors a template most likely
+ * causes and the compiler would: unused and missing imports, names declared
+ * twice in a package, and files of a directory in different packages. Names
+ * are not resolved beyond that.
+ */
+class GoSourceChecker {
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList("break", "case", "chan", "const",
+            "continue", "default", "defer", "else", "fallthrough", "for", "func", "go", "goto", "if", "import",
+            "interface", "map", "package", "range", "return", "select", "struct", "switch", "type", "var"));
+
+    // longest first, so that the first match is the operator
+    private static final String[] OPERATORS = { "<<=", ">>=", "&^=", "...", "&&", "||", "<-", "++", "--", "==",
+            "!=", "<=", ">=", ":=", "+=", "-=", "*=", "/=", "%=", "&=", "|=", "^=", "<<", ">>", "&^", "+", "-", "*",
+            "/", "%", "&", "|", "^", "<", ">", "=", "!", "(", ")", "[", "]", "{", "}", ",", ";", ".", ":", "~" };
+
+    private static final Set<String> ASSIGN_OPERATORS = new HashSet<>(Arrays.asList("=", ":=", "+=", "-=", "*=",
+            "/=", "%=", "&=", "|=", "^=", "<<=", ">>=", "&^="));
+
+    static final String IDENT = "IDENT";
+    static final String INT = "INT";
+    static final String FLOAT = "FLOAT";
+    static final String IMAG = "IMAG";
+    static final String CHAR = "CHAR";
+    static final String STRING = "STRING";
+    static final String EOF = "EOF";
+
+    static final class SyntaxError extends RuntimeException {
+        SyntaxError(String file, int line, String message) {
+            super(file + ":" + line + ": " + message);
+        }
+    }
+
+    static final class Token {
+        final String kind;
+        final String text;
+        final int line;
+
+        Token(String kind, String text, int line) {
+            this.kind = kind;
+            this.text = text;
+            this.line = line;
+        }
+    }
+
+    /**
+     * What a file declares and uses, for the checks across the files of a
+     * package
+     */
+    static final class GoFile {
+        final String name;
+        String packageName;
+        // import name => line
+        final Map<String, Integer> imports = new LinkedHashMap<>();
+        // package level names, with methods as Receiver.Method => line
+        final Map<String, Integer> declarations = new LinkedHashMap<>();
+        final List<String> duplicates = new ArrayList<>();
+        // all the other declared names: parameters, results, locals, labels
+        final Set<String> locals = new HashSet<>();
+        // identifiers qualified with a selector, e.g. http in http.Client => first line
+        final Map<String, Integer> qualifiers = new LinkedHashMap<>();
+
+        GoFile(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Parse every .go file under root, and check the files of each directory
+     * together
+     *
+     * @param checkImports - the files, by path relative to root, whose imports
+     *                     are checked
+     * @return the problems found, empty when every file parses
+     */
+    static List<String> check(Path root, Predicate<String> checkImports) {
+        Map<Path, List<GoFile>> packages = new TreeMap<>();
+        List<String> problems = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path path : files.filter(p -> p.toString().endsWith(".go")).sorted().collect(Collectors.toList())) {
+                String name = root.relativize(path).toString();
+                try {
+                    GoFile file = parse(name, new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+                    packages.computeIfAbsent(path.getParent(), k -> new ArrayList<>()).add(file);
+                } catch (SyntaxError e) {
+                    problems.add(e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (List<GoFile> files : packages.values()) {
+            problems.addAll(checkPackage(files, checkImports));
+        }
+        return problems;
+    }
+
+    static List<String> checkPackage(List<GoFile> files, Predicate<String> checkImports) {
+        List<String> problems = new ArrayList<>();
+        String packageName = null;
+        Map<String, String> declaredIn = new HashMap<>();
+        for (GoFile file : files) {
+            String name = file.packageName.endsWith("_test") && file.name.endsWith("_test.go")
+                    ? file.packageName.substring(0, file.packageName.length() - "_test".length())
+                    : file.packageName;
+            if (packageName == null) {
+                packageName = name;
+            } else if (!packageName.equals(name)) {
+                problems.add(file.name + ": package " + file.packageName + ", expected " + packageName);
+            }
+            for (String duplicate : file.duplicates) {
+                problems.add(file.name + ": " + duplicate);
+            }
+            for (Map.Entry<String, Integer> declaration : file.declarations.entrySet()) {
+                String previous = declaredIn.putIfAbsent(declaration.getKey(), file.name);
+                if (previous != null) {
+                    problems.add(file.name + ":" + declaration.getValue() + ": " + declaration.getKey()
+                            + " redeclared, previous declaration in " + previous);
+                }
+            }
+        }
+        for (GoFile file : files) {
+            if (!checkImports.test(file.name)) {
+                continue;
+            }
+            for (Map.Entry<String, Integer> entry : file.imports.entrySet()) {
+                if (!file.qualifiers.containsKey(entry.getKey())) {
+                    problems.add(file.name + ":" + entry.getValue() + ": " + entry.getKey() + " imported and not used");
+                }
+            }
+            for (Map.Entry<String, Integer> entry : file.qualifiers.entrySet()) {
+                String name = entry.getKey();
+                if (!file.imports.containsKey(name) && !file.locals.contains(name) && !declaredIn.containsKey(name)) {
+                    problems.add(file.name + ":" + entry.getValue() + ": undefined: " + name);
+                }
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * @throws SyntaxError at the first syntax error
+     */
+    static GoFile parse(String name, String source) {
+        Parser parser = new Parser(name, scan(name, source));
+        parser.parseFile();
+        return parser.file;
+    }
+
+    static List<Token> scan(String name, String src) {
+        List<Token> tokens = new ArrayList<>();
+        int line = 1;
+        int i = 0;
+        int n = src.length();
+        while (true) {
+            boolean newline = false;
+            // skip white space and comments, noting whether they hold a newline
+            while (i < n) {
+                char c = src.charAt(i);
+                if (c == '\n') {
+                    newline = true;
+                    line++;
+                    i++;
+                } else if (c == ' ' || c == '\t' || c == '\r') {
+                    i++;
+                } else if (src.startsWith("//", i)) {
+                    while (i < n && src.charAt(i) != '\n') {
+                        i++;
+                    }
+                } else if (src.startsWith("/*", i)) {
+                    int end = src.indexOf("*/", i + 2);
+                    if (end < 0) {
+                        throw new SyntaxError(name, line, "comment not terminated");
+                    }
+                    for (int j = i; j < end; j++) {
+                        if (src.charAt(j) == '\n') {
+                            newline = true;
+                            line++;
+                        }
+                    }
+                    i = end + 2;
+                } else {
+                    break;
+                }
+            }
+            if ((newline || i >= n) && insertsSemicolon(tokens)) {
+                tokens.add(new Token(";", "\n", line - (newline ? 1 : 0)));
+            }
+            if (i >= n) {
+                tokens.add(new Token(EOF, "", line));
+                return tokens;
+            }
+
+            char c = src.charAt(i);
+            int start = i;
+            if (Character.isLetter(c) || c == '_') {
+                while (i < n && (Character.isLetterOrDigit(src.charAt(i)) || src.charAt(i) == '_')) {
+                    i++;
+                }
+                String word = src.substring(start, i);
+                tokens.add(new Token(KEYWORDS.contains(word) ? word : IDENT, word, line));
+            } else if (Character.isDigit(c) || (c == '.' && i + 1 < n && Character.isDigit(src.charAt(i + 1)))) {
+                i = scanNumber(name, src, i, line, tokens);
+            } else if (c == '"') {
+                i++;
+                while (i < n && src.charAt(i) != '"') {
+                    if (src.charAt(i) == '\n') {
+                        throw new SyntaxError(name, line, "string literal not terminated");
+                    }
+                    i += src.charAt(i) == '\\' ? 2 : 1;
+                }
+                if (i >= n) {
+                    throw new SyntaxError(name, line, "string literal not terminated");
+                }
+                i++;
+                tokens.add(new Token(STRING, src.substring(start, i), line));
+            } else if (c == '`') {
+                int end = src.indexOf('`', i + 1);
+                if (end < 0) {
+                    throw new SyntaxError(name, line, "raw string literal not terminated");
+                }
+                String text = src.substring(start, end + 1);
+                tokens.add(new Token(STRING, text, line));
+                line += text.chars().filter(ch -> ch == '\n').count();
+                i = end + 1;
+            } else if (c == '\'') {
+                i++;
+                int chars = 0;
+                while (i < n && src.charAt(i) != '\'') {
+                    if (src.charAt(i) == '\n') {
+                        throw new SyntaxError(name, line, "rune literal not terminated");
+                    }
+                    i += src.charAt(i) == '\\' ? 2 : 1;
+                    chars++;
+                }
+                if (i >= n || chars == 0) {
+                    throw new SyntaxError(name, line, "invalid rune literal");
+                }
+                i++;
+                tokens.add(new Token(CHAR, src.substring(start, i), line));
+            } else {
+                String operator = null;
+                for (String candidate : OPERATORS) {
+                    if (src.startsWith(candidate, i)) {
+                        operator = candidate;
+                        break;
+                    }
+                }
+                if (operator == null) {
+                    throw new SyntaxError(name, line, "invalid character " + c);
+                }
+                i += operator.length();
+                tokens.add(new Token(operator, operator, line));
+            }
+        }
+    }
+
+    private static boolean insertsSemicolon(List<Token> tokens) {
+        if (tokens.isEmpty()) {
+            return false;
+        }
+        switch (tokens.get(tokens.size() - 1).kind) {
+        case IDENT:
+        case INT:
+        case FLOAT:
+        case IMAG:
+        case CHAR:
+        case STRING:
+        case "break":
+        case "continue":
+        case "fallthrough":
+        case "return":
+        case "++":
+        case "--":
+        case ")":
+        case "]":
+        case "}":
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static int scanNumber(String name, String src, int i, int line, List<Token> tokens) {
+        int start = i;
+        int n = src.length();
+        boolean hex = src.startsWith("0x", i) || src.startsWith("0X", i);
+        boolean isFloat = false;
+        if (hex || src.startsWith("0b", i) || src.startsWith("0B", i) || src.startsWith("0o", i)
+                || src.startsWith("0O", i)) {
+            i += 2;
+        }
+        while (i < n) {
+            char c = src.charAt(i);
+            if (Character.isDigit(c) || c == '_' || (hex && "abcdefABCDEF".indexOf(c) >= 0)) {
+                i++;
+            } else if (c == '.') {
+                isFloat = true;
+                i++;
+            } else if ((!hex && (c == 'e' || c == 'E')) || (hex && (c == 'p' || c == 'P'))) {
+                isFloat = true;
+                i++;
+                if (i < n && (src.charAt(i) == '+' || src.charAt(i) == '-')) {
+                    i++;
+                }
+            } else {
+                break;
+            }
+        }
+        String kind = isFloat ? FLOAT : INT;
+        if (i < n && src.charAt(i) == 'i') {
+            kind = IMAG;
+            i++;
+        }
+        if (i < n && (Character.isLetterOrDigit(src.charAt(i)) || src.charAt(i) == '_')) {
+            throw new SyntaxError(name, line, "invalid number " + src.substring(start, i + 1));
+        }
+        tokens.add(new Token(kind, src.substring(start, i), line));
+        return i;
+    }
+
+    /**
+     * The shape of a parsed expression, as far as the composite literal and
+     * qualified identifier rules need it
+     */
+    private enum Shape {
+        NAME, QUALIFIED_NAME, LITERAL_TYPE, TYPE, OTHER
+    }
+
+    private static final class Parser {
+        final String name;
+        final List<Token> tokens;
+        final GoFile file;
+        int pos;
+        Token tok;
+        // < 0 in control clauses, where { starts the block rather than a composite literal
+        int exprLev;
+
+        Parser(String name, List<Token> tokens) {
+            this.name = name;
+            this.tokens = tokens;
+            this.file = new GoFile(name);
+            this.tok = tokens.get(0);
+        }
+
+        private void next() {
+            if (pos < tokens.size() - 1) {
+                pos++;
+            }
+            tok = tokens.get(pos);
+        }
+
+        private boolean is(String kind) {
+            return tok.kind.equals(kind);
+        }
+
+        private SyntaxError error(String message) {
+            String found = is(";") && "\n".equals(tok.text) ? "newline" : is(EOF) ? "EOF" : tok.text;
+            return new SyntaxError(name, tok.line, message + ", found " + found);
+        }
+
+        private Token expect(String kind) {
+            if (!is(kind)) {
+                throw error("expected " + kind);
+            }
+            Token token = tok;
+            next();
+            return token;
+        }
+
+        // a semicolon is optional before a closing ) or }
+        private void expectSemi() {
+            if (is(")") || is("}")) {
+                return;
+            }
+            if (!is(";")) {
+                throw error("expected ;");
+            }
+            next();
+        }
+
+        private void qualifier(Token ident) {
+            file.qualifiers.putIfAbsent(ident.text, ident.line);
+        }
+
+        private void declare(String kind, String name, int line) {
+            if ("_".equals(name) || "init".equals(name) && "func".equals(kind)) {
+                return;
+            }
+            if (file.declarations.putIfAbsent(name, line) != null) {
+                file.duplicates.add(line + ": " + name + " redeclared in this file");
+            }
+        }
+
+        // ---- declarations
+
+        void parseFile() {
+            expect("package");
+            file.packageName = expect(IDENT).text;
+            expectSemi();
+            while (is("import")) {
+                parseGenDecl(true, this::parseImportSpec);
+            }
+            while (!is(EOF)) {
+                switch (tok.kind) {
+                case "const":
+                case "var":
+                    parseGenDecl(true, this::parseValueSpec);
+                    break;
+                case "type":
+                    parseGenDecl(true, this::parseTypeSpec);
+                    break;
+                case "func":
+                    parseFuncDecl();
+                    break;
+                case "import":
+                    throw error("imports must appear before other declarations");
+                default:
+                    throw error("non-declaration statement outside function body");
+                }
+            }
+        }
+
+        private interface SpecParser {
+            void parse(boolean topLevel);
+        }
+
+        private void parseGenDecl(boolean topLevel, SpecParser spec) {
+            next();
+            if (is("(")) {
+                next();
+                while (!is(")") && !is(EOF)) {
+                    spec.parse(topLevel);
+                }
+                expect(")");
+                expectSemi();
+            } else {
+                spec.parse(topLevel);
+            }
+        }
+
+        private void parseImportSpec(boolean topLevel) {
+            String alias = null;
+            if (is(IDENT) || is(".")) {
+                alias = tok.text;
+                next();
+            }
+            Token path = expect(STRING);
+            String importPath = path.text.substring(1, path.text.length() - 1);
+            if (importPath.isEmpty()) {
+                throw new SyntaxError(name, path.line, "invalid import path");
+            }
+            String importName = alias != null ? alias : defaultImportName(importPath);
+            if (!"_".equals(importName) && !".".equals(importName)) {
+                if (file.imports.putIfAbsent(importName, path.line) != null) {
+                    file.duplicates.add(path.line + ": " + importName + " imported twice");
+                }
+            }
+            expectSemi();
+        }
+
+        // the last element of the path, without a gopkg.in version as in validator.v2
+        private String defaultImportName(String importPath) {
+            String last = importPath.substring(importPath.lastIndexOf('/') + 1);
+            return importPath.startsWith("gopkg.in/") ? last.replaceFirst("\\.v[0-9]+$", "") : last;
+        }
+
+        private void parseValueSpec(boolean topLevel) {
+            for (Token ident : parseIdentList()) {
+                if (topLevel) {
+                    declare("var", ident.text, ident.line);
+                } else {
+                    file.locals.add(ident.text);
+                }
+            }
+            if (!is("=") && !is(";") && !is(")")) {
+                parseType();
+            }
+            if (is("=")) {
+                next();
+                parseExprList();
+            }
+            expectSemi();
+        }
+
+        private void parseTypeSpec(boolean topLevel) {
+            Token ident = expect(IDENT);
+            if (topLevel) {
+                declare("type", ident.text, ident.line);
+            } else {
+                file.locals.add(ident.text);
+            }
+            if (is("=")) {
+                next();
+            }
+            parseType();
+            expectSemi();
+        }
+
+        private void parseFuncDecl() {
+            expect("func");
+            String receiver = null;
+            if (is("(")) {
+                int line = tok.line;
+                List<String> types = new ArrayList<>();
+                parseParameters(types);
+                if (types.size() != 1) {
+                    throw new SyntaxError(name, line, "method has " + types.size() + " receivers");
+                }
+                receiver = types.get(0);
+            }
+            Token ident = expect(IDENT);
+            declare("func", receiver == null ? ident.text : receiver + "." + ident.text, ident.line);
+            parseSignature();
+            if (is("{")) {
+                parseBody();
+            }
+            expectSemi();
+        }
+
+        private List<Token> parseIdentList() {
+            List<Token> idents = new ArrayList<>();
+            idents.add(expect(IDENT));
+            while (is(",")) {
+                next();
+                idents.add(expect(IDENT));
+            }
+            return idents;
+        }
+
+        // ---- types
+
+        private void parseType() {
+            if (tryType() == null) {
+                throw error("expected type");
+            }
+        }
+
+        /**
+         * @return the shape of the type, or null if there is no type here
+         */
+        private Shape tryType() {
+            switch (tok.kind) {
+            case IDENT:
+                return parseTypeName();
+            case "[":
+                next();
+                if (is("]")) {
+                    next();
+                } else {
+                    exprLev++;
+                    if (is("...")) {
+                        next();
+                    } else {
+                        parseExpr();
+                    }
+                    exprLev--;
+                    expect("]");
+                }
+                parseType();
+                return Shape.LITERAL_TYPE;
+            case "struct":
+                parseStructType();
+                return Shape.LITERAL_TYPE;
+            case "map":
+                next();
+                expect("[");
+                parseType();
+                expect("]");
+                parseType();
+                return Shape.LITERAL_TYPE;
+            case "*":
+                next();
+                parseType();
+                return Shape.TYPE;
+            case "func":
+                next();
+                parseSignature();
+                return Shape.TYPE;
+            case "interface":
+                parseInterfaceType();
+                return Shape.TYPE;
+            case "chan":
+                next();
+                if (is("<-")) {
+                    next();
+                }
+                parseType();
+                return Shape.TYPE;
+            case "<-":
+                next();
+                expect("chan");
+                parseType();
+                return Shape.TYPE;
+            case "(":
+                next();
+                parseType();
+                expect(")");
+                return Shape.TYPE;
+            default:
+                return null;
+            }
+        }
+
+        private Shape parseTypeName() {
+            Token ident = expect(IDENT);
+            if (is(".")) {
+                next();
+                expect(IDENT);
+                qualifier(ident);
+                return Shape.QUALIFIED_NAME;
+            }
+            return Shape.NAME;
+        }
+
+        private void parseStructType() {
+            expect("struct");
+            expect("{");
+            Set<String> fields = new HashSet<>();
+            while (!is("}") && !is(EOF)) {
+                if (is("*")) {
+                    // embedded pointer
+                    next();
+                    parseTypeName();
+                } else if (is(IDENT)) {
+                    Token first = tok;
+                    next();
+                    if (is(".")) {
+                        // embedded qualified type
+                        next();
+                        expect(IDENT);
+                        qualifier(first);
+                    } else if (is(";") || is("}") || is(STRING)) {
+                        // embedded type
+                        addField(fields, first);
+                    } else {
+                        List<Token> names = new ArrayList<>(Collections.singletonList(first));
+                        while (is(",")) {
+                            next();
+                            names.add(expect(IDENT));
+                        }
+                        parseType();
+                        for (Token field : names) {
+                            addField(fields, field);
+                        }
+                    }
+                } else {
+                    throw error("expected field name or embedded type");
+                }
+                if (is(STRING)) {
+                    next();
+                }
+                expectSemi();
+            }
+            expect("}");
+        }
+
+        private void addField(Set<String> fields, Token field) {
+            if (!"_".equals(field.text) && !fields.add(field.text)) {
+                throw new SyntaxError(name, field.line, field.text + " redeclared in struct");
+            }
+        }
+
+        private void parseInterfaceType() {
+            expect("interface");
+            expect("{");
+            while (!is("}") && !is(EOF)) {
+                if (is(IDENT)) {
+                    Token first = tok;
+                    next();
+                    if (is("(")) {
+                        parseSignature();
+                    } else if (is(".")) {
+                        next();
+                        expect(IDENT);
+                        qualifier(first);
+                    }
+                } else {
+                    parseType();
+                }
+                expectSemi();
+            }
+            expect("}");
+        }
+
+        private void parseSignature() {
+            parseParameters(null);
+            if (is("(")) {
+                parseParameters(null);
+            } else {
+                tryType();
+            }
+        }
+
+        /**
+         * Parse a parameter list, whose entries are either all types or all
+         * named, and declare the names
+         *
+         * @param types the base type names of the entries, for receivers
+         */
+        private void parseParameters(List<String> types) {
+            expect("(");
+            exprLev++;
+            while (!is(")") && !is(EOF)) {
+                if (is("...")) {
+                    next();
+                    parseType();
+                } else {
+                    Token first = tok;
+                    String baseType = is("*") && tokens.get(pos + 1).kind.equals(IDENT) ? tokens.get(pos + 1).text
+                            : first.text;
+                    Shape shape = tryType();
+                    if (shape == null) {
+                        throw error("expected parameter");
+                    }
+                    if (shape == Shape.NAME && !is(",") && !is(")")) {
+                        // named parameter
+                        file.locals.add(first.text);
+                        baseType = is("*") && tokens.get(pos + 1).kind.equals(IDENT) ? tokens.get(pos + 1).text
+                                : tok.text;
+                        if (is("...")) {
+                            next();
+                        }
+                        parseType();
+                    } else if (shape == Shape.NAME) {
+                        // the first of several names sharing a type, as in a, b string
+                        file.locals.add(first.text);
+                    }
+                    if (types != null) {
+                        types.add(baseType);
+                    }
+                }
+                if (!is(",")) {
+                    break;
+                }
+                next();
+            }
+            exprLev--;
+            expect(")");
+        }
+
+        // ---- statements
+
+        private void parseBody() {
+            int lev = exprLev;
+            exprLev = 0;
+            parseBlock();
+            exprLev = lev;
+        }
+
+        private void parseBlock() {
+            expect("{");
+            parseStmtList();
+            expect("}");
+        }
+
+        private void parseStmtList() {
+            while (!is("}") && !is(EOF) && !is("case") && !is("default")) {
+                parseStmt();
+            }
+        }
+
+        private void parseStmt() {
+            switch (tok.kind) {
+            case "const":
+            case "var":
+                parseGenDecl(false, this::parseValueSpec);
+                break;
+            case "type":
+                parseGenDecl(false, this::parseTypeSpec);
+                break;
+            case "go":
+            case "defer":
+                next();
+                parseExpr();
+                expectSemi();
+                break;
+            case "return":
+                next();
+                if (!is(";") && !is("}")) {
+                    parseExprList();
+                }
+                expectSemi();
+                break;
+            case "break":
+            case "continue":
+            case "goto":
+                next();
+                if (is(IDENT)) {
+                    next();
+                }
+                expectSemi();
+                break;
+            case "fallthrough":
+                next();
+                expectSemi();
+                break;
+            case "{":
+                parseBlock();
+                expectSemi();
+                break;
+            case "if":
+                parseIfStmt();
+                break;
+            case "switch":
+                parseSwitchStmt();
+                break;
+            case "select":
+                parseSelectStmt();
+                break;
+            case "for":
+                parseForStmt();
+                break;
+            case ";":
+                next();
+                break;
+            case "}":
+                break;
+            default:
+                if (parseSimpleStmt(true, false)) {
+                    // labeled statement
+                    if (!is("}")) {
+                        parseStmt();
+                    }
+                } else {
+                    expectSemi();
+                }
+            }
+        }
+
+        /**
+         * @return true if the statement is a label
+         */
+        private boolean parseSimpleStmt(boolean labelOk, boolean rangeOk) {
+            int startPos = pos;
+            List<Shape> lhs = parseExprList();
+            if (ASSIGN_OPERATORS.contains(tok.kind)) {
+                boolean define = is(":=");
+                if (define) {
+                    for (int i = startPos; i < pos; i++) {
+                        if (tokens.get(i).kind.equals(IDENT)) {
+                            file.locals.add(tokens.get(i).text);
+                        }
+                    }
+                }
+                next();
+                if (rangeOk && is("range") && (define || is("=") || tokens.get(pos - 1).kind.equals("="))) {
+                    next();
+                    parseExpr();
+                } else {
+                    parseExprList();
+                }
+                return false;
+            }
+            if (lhs.size() > 1) {
+                throw error("expected := or = or comma");
+            }
+            switch (tok.kind) {
+            case ":":
+                if (labelOk && lhs.get(0) == Shape.NAME && pos == startPos + 1) {
+                    file.locals.add(tokens.get(startPos).text);
+                    next();
+                    return true;
+                }
+                return false;
+            case "<-":
+                next();
+                parseExpr();
+                return false;
+            case "++":
+            case "--":
+                next();
+                return false;
+            default:
+                return false;
+            }
+        }
+
+        private void parseIfStmt() {
+            expect("if");
+            if (is("{")) {
+                throw error("missing condition in if statement");
+            }
+            int lev = exprLev;
+            exprLev = -1;
+            if (!is(";")) {
+                parseSimpleStmt(false, false);
+            }
+            if (is(";")) {
+                next();
+                if (is("{")) {
+                    throw error("missing condition in if statement");
+                }
+                parseSimpleStmt(false, false);
+            }
+            exprLev = lev;
+            parseBlock();
+            if (is("else")) {
+                next();
+                if (is("if")) {
+                    parseIfStmt();
+                    return;
+                }
+                if (!is("{")) {
+                    throw error("expected if statement or block");
+                }
+                parseBlock();
+            }
+            expectSemi();
+        }
+
+        private void parseSwitchStmt() {
+            expect("switch");
+            int lev = exprLev;
+            exprLev = -1;
+            if (!is("{")) {
+                if (!is(";")) {
+                    parseSimpleStmt(false, false);
+                }
+                if (is(";")) {
+                    next();
+                    if (!is("{")) {
+                        parseSimpleStmt(false, false);
+                    }
+                }
+            }
+            exprLev = lev;
+            expect("{");
+            while (is("case") || is("default")) {
+                if (is("case")) {
+                    next();
+                    parseExprList();
+                } else {
+                    next();
+                }
+                expect(":");
+                parseStmtList();
+            }
+            expect("}");
+            expectSemi();
+        }
+
+        private void parseSelectStmt() {
+            expect("select");
+            expect("{");
+            while (is("case") || is("default")) {
+                if (is("case")) {
+                    next();
+                    parseSimpleStmt(false, false);
+                } else {
+                    next();
+                }
+                expect(":");
+                parseStmtList();
+            }
+            expect("}");
+            expectSemi();
+        }
+
+        private void parseForStmt() {
+            expect("for");
+            int lev = exprLev;
+            exprLev = -1;
+            if (!is("{")) {
+                if (is("range")) {
+                    next();
+                    parseExpr();
+                } else {
+                    boolean threeClause = is(";");
+                    if (!is(";")) {
+                        parseSimpleStmt(false, true);
+                        threeClause = is(";");
+                    }
+                    if (threeClause) {
+                        next();
+                        if (!is(";")) {
+                            parseSimpleStmt(false, false);
+                        }
+                        expect(";");
+                        if (!is("{")) {
+                            parseSimpleStmt(false, false);
+                        }
+                    }
+                }
+            }
+            exprLev = lev;
+            parseBlock();
+            expectSemi();
+        }
+
+        // ---- expressions
+
+        private List<Shape> parseExprList() {
+            List<Shape> shapes = new ArrayList<>();
+            shapes.add(parseExpr());
+            while (is(",")) {
+                next();
+                shapes.add(parseExpr());
+            }
+            return shapes;
+        }
+
+        private Shape parseExpr() {
+            return parseBinaryExpr(1);
+        }
+
+        private static int precedence(String kind) {
+            switch (kind) {
+            case "||":
+                return 1;
+            case "&&":
+                return 2;
+            case "==":
+            case "!=":
+            case "<":
+            case "<=":
+            case ">":
+            case ">=":
+                return 3;
+            case "+":
+            case "-":
+            case "|":
+            case "^":
+                return 4;
+            case "*":
+            case "/":
+            case "%":
+            case "<<":
+            case ">>":
+            case "&":
+            case "&^":
+                return 5;
+            default:
+                return 0;
+            }
+        }
+
+        private Shape parseBinaryExpr(int minPrecedence) {
+            Shape x = parseUnaryExpr();
+            while (true) {
+                int precedence = precedence(tok.kind);
+                if (precedence < minPrecedence) {
+                    return x;
+                }
+                next();
+                parseBinaryExpr(precedence + 1);
+                x = Shape.OTHER;
+            }
+        }
+
+        private Shape parseUnaryExpr() {
+            switch (tok.kind) {
+            case "+":
+            case "-":
+            case "!":
+            case "^":
+            case "&":
+                next();
+                parseUnaryExpr();
+                return Shape.OTHER;
+            case "<-":
+                if (tokens.get(pos + 1).kind.equals("chan")) {
+                    // a channel type, e.g. in a conversion
+                    return parsePrimaryExpr(tryType());
+                }
+                next();
+                parseUnaryExpr();
+                return Shape.OTHER;
+            case "*":
+                next();
+                parseUnaryExpr();
+                return Shape.TYPE;
+            default:
+                return parsePrimaryExpr(null);
+            }
+        }
+
+        private Shape parseOperand() {
+            switch (tok.kind) {
+            case IDENT:
+                next();
+                return Shape.NAME;
+            case INT:
+            case FLOAT:
+            case IMAG:
+            case CHAR:
+            case STRING:
+                next();
+                return Shape.OTHER;
+            case "(":
+                next();
+                exprLev++;
+                Shape inner = parseExprOrType();
+                exprLev--;
+                expect(")");
+                return inner == Shape.NAME || inner == Shape.QUALIFIED_NAME ? Shape.OTHER : inner;
+            case "func":
+                next();
+                parseSignature();
+                if (is("{")) {
+                    exprLev++;
+                    parseBody();
+                    exprLev--;
+                    return Shape.OTHER;
+                }
+                return Shape.TYPE;
+            default:
+                Shape type = tryType();
+                if (type == null) {
+                    throw error("expected operand");
+                }
+                return type;
+            }
+        }
+
+        private Shape parseExprOrType() {
+            if (is("[") || is("struct") || is("map") || is("chan") || is("interface")) {
+                return parsePrimaryExpr(tryType());
+            }
+            return parseExpr();
+        }
+
+        private Shape parsePrimaryExpr(Shape operand) {
+            Token first = tok;
+            Shape x = operand != null ? operand : parseOperand();
+            while (true) {
+                switch (tok.kind) {
+                case ".":
+                    next();
+                    if (is(IDENT)) {
+                        next();
+                        if (x == Shape.NAME && first.kind.equals(IDENT)) {
+                            qualifier(first);
+                            x = Shape.QUALIFIED_NAME;
+                        } else {
+                            x = Shape.OTHER;
+                        }
+                    } else if (is("(")) {
+                        next();
+                        if (is("type")) {
+                            next();
+                        } else {
+                            parseType();
+                        }
+                        expect(")");
+                        x = Shape.OTHER;
+                    } else {
+                        throw error("expected selector or type assertion");
+                    }
+                    break;
+                case "[":
+                    next();
+                    exprLev++;
+                    int colons = 0;
+                    if (!is(":")) {
+                        parseExpr();
+                    }
+                    while (is(":") && colons < 2) {
+                        colons++;
+                        next();
+                        if (!is(":") && !is("]")) {
+                            parseExpr();
+                        }
+                    }
+                    exprLev--;
+                    expect("]");
+                    x = Shape.OTHER;
+                    break;
+                case "(":
+                    next();
+                    exprLev++;
+                    while (!is(")") && !is(EOF)) {
+                        parseExprOrType();
+                        if (is("...")) {
+                            next();
+                        }
+                        if (!is(",")) {
+                            break;
+                        }
+                        next();
+                    }
+                    exprLev--;
+                    expect(")");
+                    x = Shape.OTHER;
+                    break;
+                case "{":
+                    boolean typeName = x == Shape.NAME || x == Shape.QUALIFIED_NAME;
+                    if ((typeName || x == Shape.LITERAL_TYPE) && (exprLev >= 0 || !typeName)) {
+                        parseLiteralValue();
+                        x = Shape.OTHER;
+                        break;
+                    }
+                    return x;
+                default:
+                    return x;
+                }
+            }
+        }
+
+        private void parseLiteralValue() {
+            expect("{");
+            exprLev++;
+            while (!is("}") && !is(EOF)) {
+                parseElement();
+                if (is(":")) {
+                    next();
+                    parseElement();
+                }
+                if (!is(",")) {
+                    break;
+                }
+                next();
+            }
+            exprLev--;
+            if (!is("}")) {
+                throw error("expected } or , in composite literal");
+            }
+            next();
+        }
+
+        private void parseElement() {
+            if (is("{")) {
+                parseLiteralValue();
+            } else {
+                parseExpr();
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.ptc.go.codegen;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.openapitools.codegen.DefaultGenerator;
+import org.openapitools.codegen.config.CodegenConfigurator;
+import org.openapitools.codegen.config.GlobalSettings;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class GoSourceCheckerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void resetGlobalSettings() {
+        GlobalSettings.reset();
+    }
+
+    private static final String VALID = String.join("\n",
+            "package openapi",
+            "",
+            "import (",
+            "\t\"context\"",
+            "\tnethttp \"net/http\"",
+            ")",
+            "",
+            "type Client struct {",
+            "\thttp *nethttp.Client",
+            "\tnames []string `json:\"names,omitempty\"`",
+            "}",
+            "",
+            "func (c *Client) Do(ctx context.Context, a, b string) (n int, err error) {",
+            "\tfor i, name := range c.names {",
+            "\t\tif name == (Client{}).http.Jar.String() {",
+            "\t\t\tcontinue",
+            "\t\t}",
+            "\t\tn += i",
+            "\t}",
+            "\tswitch v := ctx.Value(a).(type) {",
+            "\tcase []byte, map[string]interface{}:",
+            "\t\t_ = v",
+            "\t}",
+            "\tselect {",
+            "\tcase <-ctx.Done():",
+            "\t\treturn 0, ctx.Err()",
+            "\tdefault:",
+            "\t}",
+            "\tdefer func() { recover() }()",
+            "\treturn n, nil",
+            "}",
+            "");
+
+    private static List<String> check(String... sources) {
+        List<GoSourceChecker.GoFile> files = new ArrayList<>();
+        for (int i = 0; i < sources.length; i++) {
+            files.add(GoSourceChecker.parse("file" + i + ".go", sources[i]));
+        }
+        return GoSourceChecker.checkPackage(files, name -> true);
+    }
+
+    private static void assertSyntaxError(String source, String message) {
+        try {
+            GoSourceChecker.parse("file.go", source);
+            fail("parsed: " + source);
+        } catch (GoSourceChecker.SyntaxError e) {
+            assertTrue(e.getMessage(), e.getMessage().contains(message));
+        }
+    }
+
+    @Test
+    public void acceptsValidSource() {
+        assertEquals(Collections.emptyList(), check(VALID));
+    }
+
+    @Test
+    public void rejectsSyntaxErrors() {
+        assertSyntaxError(VALID.replace("\t\t\tcontinue\n\t\t}", "\t\t\tcontinue\n"), "file.go:");
+        assertSyntaxError(VALID.replace("return n, nil", "return n nil"), "file.go:30: expected ;");
+        assertSyntaxError(VALID.replace("(Client{})", "Client{}"), "expected ;");
+        assertSyntaxError("package openapi\n\nfunc f() {\n\tx := \"a\n}\n", "string literal not terminated");
+        assertSyntaxError("package openapi\n\nvar x = 1\n\nimport \"fmt\"\n", "imports must appear before");
+    }
+
+    @Test
+    public void reportsUnusedAndMissingImports() {
+        assertEquals(Collections.singletonList("file0.go:4: context imported and not used"),
+                check(VALID.replace("ctx context.Context", "ctx interface{ Done() <-chan struct{} }")
+                        .replace("ctx.Value(a)", "interface{}(a)").replace("ctx.Err()", "nil")));
+        assertEquals(Collections.singletonList("file0.go:29: undefined: fmt"),
+                check(VALID.replace("recover()", "fmt.Println()")));
+    }
+
+    @Test
+    public void reportsDeclarationsAcrossFiles() {
+        String other = "package openapi\n\nfunc (c Client) Do() {}\n\nfunc init() {}\n";
+        assertEquals(Collections.singletonList("file1.go:3: Client.Do redeclared, previous declaration in file0.go"),
+                check(VALID, other));
+        assertEquals(Collections.emptyList(), check(VALID, other.replace("Do()", "Get()"), other
+                .replace("Do()", "Put()")));
+        assertEquals(Collections.singletonList("file1.go: package client, expected openapi"),
+                check(VALID, "package client\n"));
+    }
+
+    private List<String> generateAndCheck(String... additionalProperties) throws Exception {
+        File output = folder.newFolder();
+        CodegenConfigurator configurator = new CodegenConfigurator()
+                .setGeneratorName("go-oapi-codegen")
+                .setInputSpec(new File("src/test/resources/documents.json").getAbsolutePath())
+                .setOutputDir(output.getAbsolutePath())
+                .addGlobalProperty("modelTests", "false")
+                .addAdditionalProperty(GoOapiCodegenGenerator.CLIENT_TESTS, "true");
+        for (int i = 0; i < additionalProperties.length; i += 2) {
+            configurator.addAdditionalProperty(additionalProperties[i], additionalProperties[i + 1]);
+        }
+        new DefaultGenerator().opts(configurator.toClientOptInput()).generate();
+        assertTrue(new File(output, "pagination_test.go").isFile());
+        // the imports of the models are those of the upstream Go generator, which
+        // adds some the templates don't use and can miss time:
+        // goimports settles them when generating the bindings
+        return GoSourceChecker.check(output.toPath(), name -> !name.startsWith("model_"));
+    }
+
+    @Test
+    public void generatedSourcesParse() throws Exception {
+        assertEquals(Collections.emptyList(), generateAndCheck());
+    }
+
+    @Test
+    public void generatedSourcesParseWithOnshapeOptions() throws Exception {
+        assertEquals(Collections.emptyList(), generateAndCheck(
+                "packageVersion", "1.2.3",
+                "useOneOfDiscriminatorLookup", "true",
+                "enumClassPrefix", "true",
+                "apiNameSuffix", "Api"));
+    }
+
+    @Test
+    public void generatedSourcesParseWithOptionalFeatures() throws Exception {
+        for (String option : Arrays.asList("generateInterfaces", "withAWSV4Signature", "withCustomMiddlewareFunction",
+                "structPrefix", "withXml", "isGoSubmodule")) {
+            assertEquals(option, Collections.emptyList(), generateAndCheck(option, "true"));
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.ptc.go.codegen;
+
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.media.Content;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import io.swagger.v3.oas.models.parameters.RequestBody;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+import io.swagger.v3.oas.models.responses.ApiResponses;
+import io.swagger.v3.core.util.Json;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class InlineModelFlattenerTest {
+    private static Schema ref(String name) {
+        return new Schema().$ref("#/components/schemas/" + name);
+    }
+
+    @Test
+    public void flattensCircularAllOf() {
+        OpenAPI openAPI = new OpenAPI().components(new Components()
+                .addSchemas("BTA", new Schema().allOf(Arrays.asList(ref("BTB"))))
+                .addSchemas("BTB", new Schema().allOf(Arrays.asList(ref("BTA"))))
+                .addSchemas("BTHolder", new Schema().type("object")
+                        .addProperty("value", new Schema().allOf(Arrays.asList(ref("BTA"))))));
+
+        new InlineModelFlattener().flatten(openAPI);
+
+        // a circular allOf counts as a model, so the property gets its own schema
+        assertNotNull(openAPI.getComponents().getSchemas().get("BTHolder_value"));
+    }
+
+    @Test
+    public void flattensDeepAllOfChain() {
+        Components components = new Components()
+                .addSchemas("BTChain0", new Schema().type("string"));
+        for (int i = 1; i < 2000; i++) {
+            components.addSchemas("BTChain" + i, new Schema().allOf(Arrays.asList(ref("BTChain" + (i - 1)))));
+        }
+        components.addSchemas("BTHolder", new Schema().type("object")
+                .addProperty("value", new Schema().allOf(Arrays.asList(ref("BTChain1999"),
+                        new Schema().type("object").addProperty("extra", new Schema().type("string"))))));
+        OpenAPI openAPI = new OpenAPI().components(components);
+
+        new InlineModelFlattener().flatten(openAPI);
+
+        assertNotNull(openAPI.getComponents().getSchemas().get("BTHolder_value"));
+    }
+
+    @Test
+    public void skipsTakenSuffixesWhenNamingInlineSchemas() {
+        Paths paths = new Paths();
+        for (int i = 0; i < 4; i++) {
+            Schema body = new Schema().title("Options").type("object")
+                    .addProperty("option" + i, new Schema().type("string"));
+            paths.addPathItem("/api/v10/partstudios/op" + i, new PathItem().post(new Operation()
+                    .operationId("op" + i)
+                    .requestBody(new RequestBody().content(new Content()
+                            .addMediaType("application/json", new MediaType().schema(body))))));
+        }
+        OpenAPI openAPI = new OpenAPI().paths(paths)
+                .components(new Components().addSchemas("Options_2", new Schema().type("string")));
+
+        new InlineModelFlattener().flatten(openAPI);
+
+        assertEquals(Arrays.asList("Options_2", "Options", "Options_1", "Options_3", "Options_4"),
+                new ArrayList<>(openAPI.getComponents().getSchemas().keySet()));
+    }
+
+    @Test
+    public void reportsReuseAndNamingCounters() {
+        Paths paths = new Paths();
+        for (int i = 0; i < 4; i++) {
+            Schema body = new Schema().title("Options").type("object")
+                    .addProperty("option" + (i % 2), new Schema().type("string"));
+            paths.addPathItem("/api/v10/partstudios/op" + i, new PathItem().post(new Operation()
+                    .operationId("op" + i)
+                    .requestBody(new RequestBody().content(new Content()
+                            .addMediaType("application/json", new MediaType().schema(body))))));
+        }
+        OpenAPI openAPI = new OpenAPI().paths(paths)
+                .components(new Components().addSchemas("Options", new Schema().type("string")));
+
+        GenerationReport report = new GenerationReport();
+        InlineModelFlattener flattener = new InlineModelFlattener();
+        flattener.setReport(report);
+        flattener.flatten(openAPI);
+
+        // option0 and option1 bodies are created once each and then reused
+        assertEquals(2, report.counter("inlineModelsCreated"));
+        assertEquals(2, report.counter("signatureReuseHits"));
+        assertEquals(2, report.counter("signatureReuseMisses"));
+        // names are picked before reuse is checked: Options, Options_1 and
+        // Options_2 are taken when naming the first three bodies
+        assertEquals(3, report.counter("nameCollisionProbes"));
+    }
+
+    private static OpenAPI mixedPaths() {
+        // one parameter object and one $ref request body reached from several paths
+        Parameter filter = new Parameter().name("filter").in("query").schema(new Schema().type("object")
+                .addProperty("kind", new Schema().type("string")));
+        Paths paths = new Paths();
+        for (int i = 0; i < 40; i++) {
+            Schema body = i % 3 == 0
+                    ? new Schema().type("object").title(i % 2 == 0 ? "Options" : null)
+                            .addProperty("options", new Schema().type("object")
+                                    .addProperty("rebuild", new Schema().type("boolean")))
+                            .addProperty("ids", new Schema().type("array").items(new Schema().type("string")))
+                    : ref("BTModel");
+            Schema response = i % 4 == 0
+                    ? new Schema().type("array").items(new Schema().type("object")
+                            .addProperty("id" + (i % 5), new Schema().type("string"))
+                            .addProperty("parts", new Schema().type("array").items(new Schema().type("object")
+                                    .addProperty("name", new Schema().type("string")))))
+                    : new Schema().oneOf(Arrays.asList(ref("BTModel"), new Schema().type("object")
+                            .addProperty("error" + (i % 3), new Schema().type("string"))));
+            Operation post = new Operation()
+                    .requestBody(i % 7 == 0
+                            ? new RequestBody().$ref("#/components/requestBodies/SharedBody")
+                            : new RequestBody().content(new Content()
+                                    .addMediaType("application/json", new MediaType().schema(body))))
+                    .responses(new ApiResponses().addApiResponse("200", new ApiResponse()
+                            .content(new Content().addMediaType("application/json",
+                                    new MediaType().schema(response)))));
+            if (i % 5 == 0) {
+                post.addParametersItem(filter);
+            }
+            paths.addPathItem("/api/v10/elements/op" + i, new PathItem()
+                    .addParametersItem(new Parameter().name("did").in("path").schema(new Schema().type("string")))
+                    .post(post));
+        }
+        return new OpenAPI().paths(paths).components(new Components()
+                .addSchemas("BTModel", new Schema().type("object").addProperty("id", new Schema().type("string")))
+                .addRequestBodies("SharedBody", new RequestBody().content(new Content()
+                        .addMediaType("application/json", new MediaType().schema(new Schema().type("object")
+                                .addProperty("options", new Schema().type("object")
+                                        .addProperty("force", new Schema().type("boolean"))))))));
+    }
+
+    private static OpenAPI flattenMixedPaths(boolean parallel, boolean skipSchemaReuse, GenerationReport report) {
+        OpenAPI openAPI = mixedPaths();
+        Map<String, String> options = new HashMap<>();
+        options.put("PARALLEL_PATH_FLATTENING", String.valueOf(parallel));
+        options.put("SKIP_SCHEMA_REUSE", String.valueOf(skipSchemaReuse));
+        InlineModelFlattener flattener = new InlineModelFlattener();
+        flattener.setReport(report);
+        flattener.setInlineSchemaOptions(options);
+        flattener.flatten(openAPI);
+        return openAPI;
+    }
+
+    @Test
+    public void parallelPathFlatteningMatchesSequential() throws Exception {
+        // without schema reuse, flattening a shared schema twice would add it twice
+        for (boolean skipSchemaReuse : new boolean[] { false, true }) {
+            OpenAPI sequential = flattenMixedPaths(false, skipSchemaReuse, new GenerationReport());
+            GenerationReport report = new GenerationReport();
+            OpenAPI parallel = flattenMixedPaths(true, skipSchemaReuse, report);
+
+            assertEquals(new ArrayList<>(sequential.getComponents().getSchemas().keySet()),
+                    new ArrayList<>(parallel.getComponents().getSchemas().keySet()));
+            assertEquals(Json.pretty(sequential), Json.pretty(parallel));
+            // every path but the first reaching the shared parameter or request body
+            assertEquals(11, report.counter("pathsFlattenedInPlace"));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ptc.go.codegen;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class NamesTest {
+    private static final String[] NAMES = { "", "BTMFeature-134", "12.schema.User name", "9", "_12object",
+            "io.schema.User_name", "partstudios_features_post_request", "Ünïcödé title", "emoji 😀 name",
+            "getFeatures_200_response", "  ", "FEATURE_STATE_OK", "feature state", "__leading__and__trailing__",
+            "mixedCase_Value", "Été_déjà_vu", "x-y.z", "A1_b2 C3" };
+
+    @Test
+    public void sanitizeMatchesRegexReplacement() {
+        for (String name : NAMES) {
+            assertEquals(name, name.replaceAll("^[0-9]", "_$0").replaceAll("[^A-Za-z0-9]", "_"),
+                    Names.sanitize(name));
+        }
+    }
+
+    @Test
+    public void enumNameMatchesSplitAndCapitalize() {
+        for (String value : NAMES) {
+            String expected = "";
+            for (String part : StringUtils.lowerCase(StringUtils.replace(value, "_", " ")).split(" ")) {
+                expected += StringUtils.capitalize(part);
+            }
+            assertEquals(value, expected, Names.enumName(value));
+        }
+    }
+
+    @Test
+    public void returnsTheSameInstanceForRepeatedInputs() {
+        String value = "FEATURE_STATE_" + System.nanoTime();
+        assertSame(Names.enumName(value), Names.enumName(new String(value)));
+        assertSame(Names.sanitize(value + ".x"), Names.sanitize(value + ".x"));
+        assertTrue(Names.isBlank(Names.sanitize("- .")));
+        assertFalse(Names.isBlank(Names.sanitize("-a")));
+    }
+}
@@ -0,0 +1,139 @@
+package com.ptc.go.codegen;
+
+import org.junit.Test;
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.CodegenProperty;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+public class OneOfDecisionTreeTest {
+    // the strict decoder rejects unknown keys for every schema
+    private static final Predicate<CodegenModel> STRICT = m -> true;
+
+    private final Map<String, CodegenModel> models = new HashMap<>();
+
+    // properties ending with * are required
+    private CodegenModel model(String name, String... properties) {
+        CodegenModel model = new CodegenModel();
+        model.classname = name;
+        for (String property : properties) {
+            CodegenProperty p = new CodegenProperty();
+            p.required = property.endsWith("*");
+            p.baseName = p.required ? property.substring(0, property.length() - 1) : property;
+            model.allVars.add(p);
+        }
+        models.put(name, model);
+        return model;
+    }
+
+    private static CodegenModel oneOf(String... types) {
+        CodegenModel model = new CodegenModel();
+        model.classname = "Value";
+        model.oneOf = new LinkedHashSet<>(Arrays.asList(types));
+        return model;
+    }
+
+    private static Map<String, Object> kind(Map<String, Object> decision, String kind) {
+        for (Map<String, Object> k : (List<Map<String, Object>>) decision.get("kinds")) {
+            if (kind.equals(k.get("kind"))) {
+                return k;
+            }
+        }
+        return null;
+    }
+
+    // condition masks and candidates of each case, e.g. [0x1]=0x1
+    private static List<String> cases(Map<String, Object> kind) {
+        List<String> cases = new ArrayList<>();
+        for (Map<String, Object> c : (List<Map<String, Object>>) kind.get("leaves")) {
+            cases.add(c.get("conditions") + "=" + c.get("mask"));
+        }
+        return cases;
+    }
+
+    @Test
+    public void tellsObjectsApartByTheirKeys() {
+        model("Circle", "radius*", "name");
+        model("Rect", "width*", "height*", "name");
+        model("Square", "side*", "name");
+
+        Map<String, Object> decision = OneOfDecisionTree.of(oneOf("Circle", "Rect", "Square"), models, STRICT);
+
+        assertEquals("{\"radius\", \"width\"}", decision.get("keys"));
+        assertEquals(Arrays.asList("[0x1]=0x1", "[0x2]=0x2", "[0x0]=0x4"), cases(kind(decision, "jsonObject")));
+        assertEquals("0x7", kind(decision, "jsonNull").get("mask"));
+        assertNull(kind(decision, "jsonString"));
+    }
+
+    @Test
+    public void tellsPrimitivesApartByTheirKind() {
+        CodegenModel color = model("Color");
+        color.isEnum = true;
+        color.dataType = "string";
+        model("Circle", "radius*");
+
+        Map<String, Object> decision = OneOfDecisionTree.of(
+                oneOf("int32", "[]string", "Color", "string", "map[string]string", "Circle", "JSONTime"), models, STRICT);
+
+        assertEquals(false, decision.get("hasKeys"));
+        assertEquals("0x41", kind(decision, "jsonNumber").get("mask"));
+        assertEquals("0x42", kind(decision, "jsonArray").get("mask"));
+        assertEquals("0x4c", kind(decision, "jsonString").get("mask"));
+        assertEquals("0x70", kind(decision, "jsonObject").get("mask"));
+        assertEquals("0x40", kind(decision, "jsonBool").get("mask"));
+        assertTrue(cases(kind(decision, "jsonObject")).isEmpty());
+    }
+
+    @Test
+    public void keepsObjectsThatIgnoreUnknownKeysWhenTheirKeysArePresent() {
+        model("Circle", "radius*", "name");
+        model("Rect", "width*", "height*", "name");
+        CodegenModel square = model("Square", "side*", "name");
+
+        Map<String, Object> decision = OneOfDecisionTree.of(oneOf("Circle", "Rect", "Square"), models,
+                m -> m == square);
+
+        // a present key only rules out Square, which rejects unknown keys; absent keys rule out what requires them
+        assertEquals("{\"radius\", \"width\", \"height\"}", decision.get("keys"));
+        assertEquals(Arrays.asList("[0x7]=0x3", "[0x3, 0x1]=0x1", "[0x2]=0x2", "[0x0]=0x4"),
+                cases(kind(decision, "jsonObject")));
+    }
+
+    @Test
+    public void keepsObjectsThatAcceptAnyKeyInEveryCase() {
+        model("Circle", "radius*");
+        model("Square", "side*");
+        model("Labels").isAdditionalPropertiesTrue = true;
+        model("Shape").oneOf.add("Circle");
+
+        Map<String, Object> decision = OneOfDecisionTree.of(oneOf("Circle", "Square", "Labels", "Shape"), models, STRICT);
+
+        assertEquals(Arrays.asList("[0x1]=0xd", "[0x0]=0xe"), cases(kind(decision, "jsonObject")));
+        assertEquals("0x8", kind(decision, "jsonString").get("mask"));
+    }
+
+    @Test
+    public void sharesCasesAndTriesObjectsThatCannotBeToldApart() {
+        model("Chain", "p0", "nested0");
+        model("Choice", "z0");
+        model("Copy", "z0");
+
+        Map<String, Object> decision = OneOfDecisionTree.of(oneOf("Chain", "Choice", "Copy"), models, STRICT);
+
+        assertEquals(Arrays.asList("[0x1, 0x2]=0x1", "[0x4]=0x6", "[0x0]=0x7"),
+                cases(kind(decision, "jsonObject")));
+    }
+
+    @Test
+    public void leavesLargeOneOfsToTheTemplate() {
+        String[] types = new String[OneOfDecisionTree.MAX_BITS + 1];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = "[]Item" + i;
+        }
+        assertNotNull(OneOfDecisionTree.of(oneOf(Arrays.copyOf(types, OneOfDecisionTree.MAX_BITS)), models, STRICT));
+        assertNull(OneOfDecisionTree.of(oneOf(types), models, STRICT));
+    }
+}
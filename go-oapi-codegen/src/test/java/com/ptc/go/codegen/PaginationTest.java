@@ -0,0 +1,91 @@
+package com.ptc.go.codegen;
+
+import org.junit.Test;
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.CodegenOperation;
+import org.openapitools.codegen.CodegenParameter;
+import org.openapitools.codegen.CodegenProperty;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class PaginationTest {
+    private final Map<String, CodegenModel> models = new HashMap<>();
+
+    // properties ending with [] are arrays of Item, the others strings
+    private void model(String name, String... properties) {
+        CodegenModel model = new CodegenModel();
+        model.classname = name;
+        for (String property : properties) {
+            CodegenProperty p = new CodegenProperty();
+            p.baseName = property.replace("[]", "");
+            p.name = Character.toUpperCase(p.baseName.charAt(0)) + p.baseName.substring(1);
+            if (property.endsWith("[]")) {
+                p.isArray = true;
+                p.items = new CodegenProperty();
+                p.items.dataType = "Item";
+            } else {
+                p.isString = true;
+            }
+            model.allVars.add(p);
+        }
+        models.put(name, model);
+    }
+
+    private static CodegenOperation operation(String method, String returnType) {
+        CodegenOperation operation = new CodegenOperation();
+        operation.httpMethod = method;
+        operation.returnBaseType = returnType;
+        return operation;
+    }
+
+    @Test
+    public void findsPagesWithItemsAndANextLink() {
+        model("ListResponse", "items[]", "next", "previous", "href");
+        CodegenOperation operation = operation("Get", "ListResponse");
+
+        assertTrue(Pagination.apply(operation, models));
+        assertEquals(new HashMap<String, Object>() {{
+            put("itemType", "Item");
+            put("itemsGetter", "GetItems");
+            put("nextGetter", "GetNext");
+        }}, operation.vendorExtensions.get(Pagination.PAGER_EXTENSION));
+    }
+
+    @Test
+    public void skipsOtherResponses() {
+        model("ListResponse", "items[]", "next");
+        model("NoNext", "items[]", "href");
+        model("StringItems", "items", "next");
+        CodegenOperation list = operation("Get", "ListResponse");
+        list.returnContainer = "array";
+        CodegenOperation conflicting = operation("Get", "ListResponse");
+        conflicting.allParams.add(new CodegenParameter());
+        conflicting.allParams.get(0).paramName = "nextPage";
+
+        for (CodegenOperation operation : Arrays.asList(operation("Post", "ListResponse"), operation("Get", "NoNext"),
+                operation("Get", "StringItems"), operation("Get", "Missing"), list, conflicting)) {
+            assertFalse(Pagination.apply(operation, models));
+            assertNull(operation.vendorExtensions.get(Pagination.PAGER_EXTENSION));
+        }
+    }
+
+    @Test
+    public void followsTheVendorExtension() {
+        model("ListResponse", "items[]", "next");
+        model("Elements", "elements[]", "nextHref");
+        CodegenOperation off = operation("Get", "ListResponse");
+        off.vendorExtensions.put(Pagination.EXTENSION, false);
+        CodegenOperation named = operation("Post", "Elements");
+        named.vendorExtensions.put(Pagination.EXTENSION, new HashMap<String, Object>() {{
+            put("items", "elements");
+            put("next", "nextHref");
+        }});
+
+        assertFalse(Pagination.apply(off, models));
+        assertTrue(Pagination.apply(named, models));
+        assertEquals("GetNextHref",
+                ((Map<?, ?>) named.vendorExtensions.get(Pagination.PAGER_EXTENSION)).get("nextGetter"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.ptc.go.codegen;
+
+import org.junit.Test;
+import org.openapitools.codegen.CodegenModel;
+import org.openapitools.codegen.CodegenOperation;
+import org.openapitools.codegen.CodegenParameter;
+import org.openapitools.codegen.CodegenProperty;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ParameterEncodersTest {
+    private final Map<String, CodegenModel> models = new HashMap<>();
+
+    private static CodegenParameter parameter(String name, String dataType) {
+        CodegenParameter parameter = new CodegenParameter();
+        parameter.baseName = name;
+        parameter.paramName = name;
+        parameter.dataType = dataType;
+        return parameter;
+    }
+
+    private static CodegenParameter array(String name, String itemType, String collectionFormat) {
+        CodegenParameter parameter = parameter(name, "[]" + itemType);
+        parameter.isArray = true;
+        parameter.items = new CodegenProperty();
+        parameter.items.dataType = itemType;
+        parameter.collectionFormat = collectionFormat;
+        parameter.isCollectionFormatMulti = "multi".equals(collectionFormat);
+        return parameter;
+    }
+
+    private static Object encoded(CodegenParameter parameter) {
+        return parameter.vendorExtensions.get(ParameterEncoders.ENCODED_EXTENSION);
+    }
+
+    @Test
+    public void encodesScalarsAndEnums() {
+        CodegenModel elementType = new CodegenModel();
+        elementType.isEnum = true;
+        elementType.dataType = "string";
+        models.put("BTElementType", elementType);
+        CodegenOperation operation = new CodegenOperation();
+        operation.path = "/documents";
+        operation.queryParams.addAll(Arrays.asList(parameter("q", "string"), parameter("limit", "int32"),
+                parameter("version", "int64"), parameter("scale", "float32"), parameter("forever", "bool"),
+                parameter("modifiedAfter", "time.Time"), parameter("elementType", "BTElementType")));
+        operation.headerParams.add(parameter("xWeight", "float64"));
+
+        assertEquals(0, ParameterEncoders.apply(operation, models));
+        List<Object> expressions = new ArrayList<>();
+        for (CodegenParameter parameter : operation.queryParams) {
+            expressions.add(encoded(parameter));
+        }
+        assertEquals(Arrays.asList("*r.q", "strconv.FormatInt(int64(*r.limit), 10)", "strconv.FormatInt(*r.version, 10)",
+                "strconv.FormatFloat(float64(*r.scale), 'g', -1, 32)", "strconv.FormatBool(*r.forever)",
+                "(*r.modifiedAfter).Format(time.RFC3339)", "string(*r.elementType)"), expressions);
+        assertEquals("strconv.FormatFloat(*r.xWeight, 'g', -1, 64)", encoded(operation.headerParams.get(0)));
+        assertEquals(new TreeSet<>(Arrays.asList("strconv", "time")), ParameterEncoders.imports(operation));
+        assertNull(operation.vendorExtensions.get(ParameterEncoders.PATH_EXTENSION));
+    }
+
+    @Test
+    public void encodesArraysAndLeavesTheRestToParameterToString() {
+        CodegenOperation operation = new CodegenOperation();
+        operation.path = "/features";
+        CodegenParameter featureIds = array("featureId", "string", "multi");
+        CodegenParameter ids = array("ids", "string", "pipes");
+        CodegenParameter counts = array("counts", "int32", "csv");
+        CodegenParameter maps = array("maps", "map[string]string", "multi");
+        CodegenParameter filter = parameter("filter", "map[string]string");
+        operation.queryParams.addAll(Arrays.asList(featureIds, ids, counts, maps, filter));
+        CodegenParameter file = parameter("file", "*os.File");
+        file.isFile = true;
+        operation.formParams.add(file);
+
+        assertEquals(3, ParameterEncoders.apply(operation, models));
+        assertEquals("v", featureIds.vendorExtensions.get(ParameterEncoders.ENCODED_ITEM_EXTENSION));
+        assertEquals("strings.Join(*r.ids, \"|\")", encoded(ids));
+        assertNull(encoded(counts));
+        assertNull(encoded(filter));
+        assertTrue(ParameterEncoders.usesReflect(operation));
+        operation.queryParams.remove(maps);
+        assertFalse(ParameterEncoders.usesReflect(operation));
+    }
+
+    @Test
+    public void buildsThePathFromItsSegments() {
+        CodegenOperation operation = new CodegenOperation();
+        operation.path = "/d/{did}/v{version}";
+        operation.pathParams.addAll(Arrays.asList(parameter("did", "string"), parameter("version", "int64")));
+
+        assertEquals(0, ParameterEncoders.apply(operation, models));
+        assertEquals(new HashMap<String, Object>() {{
+            put("segments", Arrays.asList("\"/d/\"", "url.PathEscape(r.did)", "\"/v\"",
+                    "url.PathEscape(strconv.FormatInt(r.version, 10))"));
+            put("length", 5 + 2 * 24);
+        }}, operation.vendorExtensions.get(ParameterEncoders.PATH_EXTENSION));
+
+        CodegenOperation reflective = new CodegenOperation();
+        reflective.path = "/d/{did}/m/{filter}";
+        reflective.pathParams.addAll(Arrays.asList(parameter("did", "string"),
+                parameter("filter", "map[string]string")));
+        assertEquals(1, ParameterEncoders.apply(reflective, models));
+        assertNull(reflective.vendorExtensions.get(ParameterEncoders.PATH_EXTENSION));
+    }
+
+    @Test
+    public void rendersTheClientTestCasesWithTheGeneratedExpressions() {
+        List<Map<String, String>> cases = ParameterEncoders.testCases();
+
+        for (Map<String, String> c : cases) {
+            assertNotNull(c.get("reflective"), c.get("expression"));
+        }
+        assertTrue(cases.contains(new HashMap<String, String>() {{
+            put("expression", "string(parameterTestEnum(\"PARTSTUDIO\"))");
+            put("reflective", "parameterToString(parameterTestEnum(\"PARTSTUDIO\"), \"\")");
+        }}));
+        assertTrue(cases.contains(new HashMap<String, String>() {{
+            put("expression", "strings.Join([]string{\"a\", \"b\", \"c\"}, \"\\x09\")");
+            put("reflective", "parameterToString([]string{\"a\", \"b\", \"c\"}, \"tsv\")");
+        }}));
+    }
+}
@@ -0,0 +1,85 @@
+package com.ptc.go.codegen;
+
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.Discriminator;
+import io.swagger.v3.oas.models.media.Schema;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SchemaSignatureIndexTest {
+    private static Schema options() {
+        return new Schema().type("object")
+                .addProperty("rebuild", new Schema().type("boolean"))
+                .addProperty("mode", new Schema().type("string")._enum(Arrays.asList("FAST", "FULL")));
+    }
+
+    @Test
+    public void matchesStructurallyEqualSchemas() {
+        SchemaSignatureIndex index = new SchemaSignatureIndex();
+        index.add("Options", options());
+
+        assertEquals("Options", index.find(options()));
+    }
+
+    @Test
+    public void distinguishesSchemasThatSerializeDifferently() {
+        SchemaSignatureIndex index = new SchemaSignatureIndex();
+        index.add("Options", options());
+
+        assertNull(index.find(options().description("changed")));
+        assertNull(index.find(new Schema().type("object")
+                .addProperty("mode", new Schema().type("string")._enum(Arrays.asList("FAST", "FULL")))
+                .addProperty("rebuild", new Schema().type("boolean"))));
+    }
+
+    @Test
+    public void comparesRefsByTargetOnly() {
+        SchemaSignatureIndex index = new SchemaSignatureIndex();
+        Schema ref = new Schema().$ref("#/components/schemas/Options");
+        ref.addExtension("x-ignored", true);
+
+        assertTrue(index.structurallyEqual(ref, new Schema().$ref("#/components/schemas/Options")));
+        assertFalse(index.structurallyEqual(ref, new Schema().$ref("#/components/schemas/Other")));
+    }
+
+    @Test
+    public void ignoresSchemaSubclass() {
+        SchemaSignatureIndex index = new SchemaSignatureIndex();
+        index.add("Names", new ArraySchema().items(new Schema().type("string")));
+
+        assertEquals("Names", index.find(new Schema().type("array").items(new Schema().type("string"))));
+    }
+
+    @Test
+    public void matchesSchemasChangedAfterBeingLookedUp() {
+        SchemaSignatureIndex index = new SchemaSignatureIndex();
+        Schema feature = new Schema().type("object").addProperty("options", options());
+        assertNull(index.find(feature));
+
+        // the flattener replaces the inline property with a $ref, then adds the schema
+        feature.getProperties().put("options", new Schema().$ref("#/components/schemas/Options"));
+        index.add("Feature", feature);
+
+        assertEquals("Feature", index.find(new Schema().type("object")
+                .addProperty("options", new Schema().$ref("#/components/schemas/Options"))));
+        assertNull(index.find(new Schema().type("object").addProperty("options", options())));
+    }
+
+    @Test
+    public void comparesLeafValuesBySerializedForm() {
+        SchemaSignatureIndex index = new SchemaSignatureIndex();
+        index.add("Shape", new Schema().type("object")
+                .discriminator(new Discriminator().propertyName("kind").mapping("circle", "#/components/schemas/Circle"))
+                .addProperty("kind", new Schema().type("string")));
+
+        assertEquals("Shape", index.find(new Schema().type("object")
+                .discriminator(new Discriminator().propertyName("kind").mapping("circle", "#/components/schemas/Circle"))
+                .addProperty("kind", new Schema().type("string"))));
+        assertNull(index.find(new Schema().type("object")
+                .discriminator(new Discriminator().propertyName("kind").mapping("square", "#/components/schemas/Circle"))
+                .addProperty("kind", new Schema().type("string"))));
+    }
+}
@@ -0,0 +1,144 @@
+package com.ptc.go.codegen;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.oas.models.Components;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+import io.swagger.v3.oas.models.Paths;
+import io.swagger.v3.oas.models.info.Info;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class SpecPreprocessorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static OpenAPI spec() {
+        Operation getDocuments = new Operation().operationId("getDocuments")
+                .addParametersItem(new Parameter().name("q").in("query"))
+                .addParametersItem(new Parameter().name("filter").in("query"))
+                .addParametersItem(new Parameter().name("owner").in("query"));
+        return new OpenAPI()
+                .info(new Info().title("Onshape REST API").version("1.0"))
+                .paths(new Paths()
+                        .addPathItem("/api/documents", new PathItem().get(getDocuments))
+                        .addPathItem("/api/parts", new PathItem().get(new Operation().operationId("getParts"))))
+                .components(new Components()
+                        .addSchemas("BTPart", new Schema().type("object")
+                                .addProperty("partId", new Schema().type("string"))
+                                .addProperty("isHidden", new Schema().type("boolean"))
+                                .extensions(new HashMap<>(Collections.singletonMap("x-internal", true)))));
+    }
+
+    private static SpecPreprocessor.Rule remove(String key) {
+        return new SpecPreprocessor.Rule(SpecPreprocessor.REMOVE, key, null);
+    }
+
+    private static SpecPreprocessor.Rule update(String key, String json) throws Exception {
+        return new SpecPreprocessor.Rule(SpecPreprocessor.UPDATE, key, Json.mapper().readTree(json));
+    }
+
+    @Test
+    public void parsesJavaScriptAndPointerKeys() {
+        assertEquals(Arrays.asList("paths", "/api/documents", "get", "parameters", "0"),
+                SpecPreprocessor.parseKey("paths['/api/documents'].get.parameters[0]"));
+        assertEquals(Arrays.asList("paths", "/api/documents", "get"),
+                SpecPreprocessor.parseKey("paths[\"/api/documents\"].get"));
+        assertEquals(Arrays.asList("paths", "/api/documents", "get", "x~y"),
+                SpecPreprocessor.parseKey("/paths/~1api~1documents/get/x~0y"));
+    }
+
+    @Test
+    public void removesAndUpdatesValues() throws Exception {
+        OpenAPI openAPI = spec();
+        new SpecPreprocessor(Arrays.asList(
+                remove("paths['/api/parts']"),
+                remove("components.schemas.BTPart.properties.isHidden"),
+                remove("/components/schemas/BTPart/x-internal"),
+                update("info.version", "\"2.0\""),
+                update("components.schemas.BTPart.properties.partId", "{\"type\":\"integer\",\"format\":\"int64\"}"),
+                update("/components/schemas/BTPart/additionalProperties", "{\"type\":\"string\"}"),
+                update("paths['/api/documents'].get.deprecated", "true"))).apply(openAPI);
+
+        assertEquals(Arrays.asList("/api/documents"), Arrays.asList(openAPI.getPaths().keySet().toArray()));
+        Schema part = openAPI.getComponents().getSchemas().get("BTPart");
+        assertEquals(Arrays.asList("partId"), Arrays.asList(part.getProperties().keySet().toArray()));
+        assertEquals("int64", ((Schema) part.getProperties().get("partId")).getFormat());
+        assertEquals("string", ((Schema) part.getAdditionalProperties()).getType());
+        assertFalse(part.getExtensions().containsKey("x-internal"));
+        assertEquals("2.0", openAPI.getInfo().getVersion());
+        assertTrue(openAPI.getPaths().get("/api/documents").getGet().getDeprecated());
+    }
+
+    @Test
+    public void removesArrayItemsByTheirOriginalIndex() {
+        OpenAPI openAPI = spec();
+        new SpecPreprocessor(Arrays.asList(
+                remove("paths['/api/documents'].get.parameters[0]"),
+                remove("paths['/api/documents'].get.parameters[2]"))).apply(openAPI);
+
+        assertEquals(Arrays.asList("filter"), openAPI.getPaths().get("/api/documents").getGet().getParameters()
+                .stream().map(Parameter::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void failsOnRulesThatDoNotApply() throws Exception {
+        SpecPreprocessor preprocessor = new SpecPreprocessor(Arrays.asList(
+                remove("components.schemas.BTMissing.properties.name"),
+                remove("info.noSuchProperty"),
+                update("paths['/api/documents'].get.parameters[9]", "{\"name\":\"q\"}"),
+                new SpecPreprocessor.Rule(SpecPreprocessor.UPDATE, "info.version", null),
+                update("info.title", "\"Onshape\"")));
+        try {
+            preprocessor.apply(spec());
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("Could not apply the preprocess rules for components.schemas.BTMissing.properties.name,"
+                    + " info.noSuchProperty, paths['/api/documents'].get.parameters[9], info.version", e.getMessage());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsConfigsWithoutRules() throws Exception {
+        File config = folder.newFile("bindgen-config.json");
+        Files.write(config.toPath(), "{\"generate\": {}}".getBytes(StandardCharsets.UTF_8));
+        SpecPreprocessor.fromConfig(config);
+    }
+
+    @Test
+    public void readsRulesFromBindgenConfig() throws Exception {
+        File config = folder.newFile("bindgen-config.json");
+        Files.write(config.toPath(), ("{\"generate\": {\"preprocess\": ["
+                + "{\"type\": \"remove\", \"key\": \"paths['/api/parts']\"},"
+                + "{\"type\": \"update\", \"key\": \"info.title\", \"value\": \"Onshape\"}]}}")
+                .getBytes(StandardCharsets.UTF_8));
+
+        OpenAPI openAPI = spec();
+        SpecPreprocessor.fromConfig(config).apply(openAPI);
+
+        assertNull(openAPI.getPaths().get("/api/parts"));
+        assertEquals("Onshape", openAPI.getInfo().getTitle());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownRuleTypes() {
+        new SpecPreprocessor(Arrays.asList(new SpecPreprocessor.Rule("rename", "info.title",
+                JsonNodeFactory.instance.textNode("x"))));
+    }
+}